@@ -0,0 +1,180 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.benchmarks;
+
+import com.sdtech.stringextractor.StringExtractor;
+import com.sdtech.stringextractor.core.AttributeSet;
+import com.sdtech.stringextractor.core.JavaLiteralLexer;
+import com.sdtech.stringextractor.core.LiteralIndex;
+import com.sdtech.stringextractor.core.LiteralScanner;
+import com.sdtech.stringextractor.core.SourceRewriter;
+import com.sdtech.stringextractor.core.XmlAttributeScanner;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the phases of extracting the strings of a single file on their own:
+ * scanning the literals, de-duplicating them and rewriting the code, then the whole
+ * {@link StringExtractor#extractString} of a file.
+ *
+ * <p>
+ * The size is the size of the file in chars and the density is the fraction of its lines
+ * which contain a string. A time which grows faster than the size is a quadratic path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractBenchmark {
+
+    @Param({"4096", "65536", "1048576"})
+    public int size;
+
+    @Param({"0.1", "0.5", "0.9"})
+    public double density;
+
+    private String mJava;
+    private String mLayout;
+    private AttributeSet mAttributes;
+
+    /** the spans found by the scan, [start, end, valueStart, valueEnd] per literal */
+    private int[] mSpans;
+    private int mSpanCount;
+
+    /** the rewriter and replacements of the scanned java code */
+    private SourceRewriter mRewriter;
+    private String[] mReplacements;
+
+    private File mDir;
+    private File mJavaFile;
+    private File mXmlFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mJava = SourceGenerator.java("Generated", size, density, 0.3, 42);
+        mLayout = SourceGenerator.layout(size, density, 0.3, 42);
+        mAttributes = new AttributeSet(StringExtractor.getDefaultXmlAttributes());
+
+        /** record the spans once for the dedup and rewrite benchmarks */
+        mSpans = new int[64];
+        mSpanCount = 0;
+        LiteralScanner scanner = new JavaLiteralLexer(mJava);
+        LiteralIndex index = new LiteralIndex();
+        mRewriter = new SourceRewriter();
+        while(scanner.find()) {
+            if(mSpanCount * 4 == mSpans.length) {
+                int[] spans = new int[mSpans.length * 2];
+                System.arraycopy(mSpans, 0, spans, 0, mSpans.length);
+                mSpans = spans;
+            }
+            mSpans[mSpanCount * 4] = scanner.start();
+            mSpans[mSpanCount * 4 + 1] = scanner.end();
+            mSpans[mSpanCount * 4 + 2] = scanner.valueStart();
+            mSpans[mSpanCount * 4 + 3] = scanner.valueEnd();
+            mSpanCount++;
+            mRewriter.add(scanner.start(), scanner.end(), index.add(mJava, scanner.valueStart(), scanner.valueEnd()));
+        }
+        mReplacements = new String[index.size()];
+        for(int id = 0; id < mReplacements.length; id++) {
+            mReplacements[id] = "getResources().getString(R.string.extracted_string" + (id + 1) + ")";
+        }
+
+        mDir = Files.createTempDirectory("extract-benchmark").toFile();
+        mJavaFile = new File(mDir, "Generated.java");
+        mXmlFile = new File(mDir, "strings.xml");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mJavaFile.delete();
+        mXmlFile.delete();
+        mDir.delete();
+    }
+
+    /** restore the java file and remove the xml file written by the last extraction */
+    @Setup(Level.Invocation)
+    public void resetFiles() throws IOException {
+        Files.write(mJavaFile.toPath(), mJava.getBytes(Charset.forName("UTF-8")));
+        mXmlFile.delete();
+    }
+
+    @Benchmark
+    public int scanJava() {
+        LiteralScanner scanner = new JavaLiteralLexer(mJava);
+        int found = 0;
+        while(scanner.find()) {
+            if(!scanner.isBlank()) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int scanLayout() {
+        LiteralScanner scanner = new XmlAttributeScanner(mLayout, mAttributes);
+        int found = 0;
+        while(scanner.find()) {
+            if(!scanner.isBlank()) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int dedup() {
+        LiteralIndex index = new LiteralIndex();
+        for(int i = 0; i < mSpanCount; i++) {
+            index.add(mJava, mSpans[i * 4 + 2], mSpans[i * 4 + 3]);
+        }
+        return index.size();
+    }
+
+    @Benchmark
+    public CharSequence rewrite() {
+        return mRewriter.rewrite(mJava, mReplacements);
+    }
+
+    @Benchmark
+    public long extractFile() {
+        StringExtractor.extractString(mJavaFile, mXmlFile, false, null, null, false, false, 0);
+        return mXmlFile.length();
+    }
+}
@@ -0,0 +1,242 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.benchmarks;
+
+import com.sdtech.stringextractor.terminal.StringExtractorTerminal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the recursive extraction of {@link StringExtractorTerminal} against a synthetic project
+ * generated with {@link ProjectGenerator} and reports the throughput.
+ *
+ * <p>
+ * Every run generates the project again in a new temporary directory, because the
+ * extraction rewrites the files. The report has the wall time of generating and extracting,
+ * the wall time of every stage of the extraction read from the <code>--stats</code> report of the terminal, the files
+ * and megabytes extracted per second and the peak heap used by the extraction.
+ * <pre>
+ * java -cp target/benchmarks.jar com.sdtech.stringextractor.benchmarks.MacroBenchmark --modules 8 --files 200
+ * </pre>
+ * Options are:
+ * <pre>
+ * --modules N      the number of modules, default is 4.
+ * --files N        the number of files per module, default is 100.
+ * --density D      the fraction of the lines or views which contain a string, default is 0.3.
+ * --duplicates D   the fraction of the strings which are common to many files, default is 0.3.
+ * --java-size N    the size of a java file in chars, default is 8192.
+ * --layout-size N  the size of a layout file in chars, default is 4096.
+ * --threads N      the number of threads of the extraction, default is the number of processors.
+ * --warmup N       the number of runs which are not reported, default is 2.
+ * --runs N         the number of reported runs, default is 5.
+ * --verbose        show the output of the terminal.
+ * --keep           keep the generated projects.
+ * </pre>
+ */
+public final class MacroBenchmark {
+
+    /** the stages of the extraction of the stats report of the terminal, with their wall time */
+    private static final String[] STAGES = {"scan", "number", "xml", "link"};
+
+    /** the patterns of the wall time of every stage in the stats report */
+    private static final Pattern[] STAGE_PATTERNS = new Pattern[STAGES.length];
+
+    static {
+        for(int i = 0; i < STAGES.length; i++) {
+            STAGE_PATTERNS[i] = Pattern.compile("\"" + STAGES[i] + "\": ([0-9]+)");
+        }
+    }
+
+    private MacroBenchmark() {}
+
+    public static void main(String... args) throws Exception {
+        ProjectGenerator generator = new ProjectGenerator();
+        int threads = 0;
+        int warmup = 2;
+        int runs = 5;
+        boolean verbose = false;
+        boolean keep = false;
+        for(int i = 0; i < args.length; i++) {
+            String option = args[i];
+            String value = i < args.length - 1 ? args[i + 1] : "0";
+            if(option.equals("--modules")) {
+                generator.setModules(Integer.parseInt(value));
+            } else if(option.equals("--files")) {
+                generator.setFiles(Integer.parseInt(value));
+            } else if(option.equals("--density")) {
+                generator.setDensity(Double.parseDouble(value));
+            } else if(option.equals("--duplicates")) {
+                generator.setDuplicates(Double.parseDouble(value));
+            } else if(option.equals("--java-size")) {
+                generator.setJavaSize(Integer.parseInt(value));
+            } else if(option.equals("--layout-size")) {
+                generator.setLayoutSize(Integer.parseInt(value));
+            } else if(option.equals("--threads")) {
+                threads = Integer.parseInt(value);
+            } else if(option.equals("--warmup")) {
+                warmup = Integer.parseInt(value);
+            } else if(option.equals("--runs")) {
+                runs = Integer.parseInt(value);
+            } else if(option.equals("--verbose")) {
+                verbose = true;
+                continue;
+            } else if(option.equals("--keep")) {
+                keep = true;
+                continue;
+            } else {
+                System.out.println("unknown option: " + option);
+                return;
+            }
+            i++;
+        }
+
+        List<long[]> results = new ArrayList<long[]>();
+        for(int run = 1; run <= warmup + runs; run++) {
+            File dir = Files.createTempDirectory("stringextractor-project").toFile();
+            long[] result = run(generator, dir, threads, verbose);
+            if(run > warmup) {
+                results.add(result);
+                report("run " + (run - warmup), result, generator);
+            }
+            if(!keep) {
+                delete(dir);
+            } else {
+                System.out.println("project kept at: " + dir);
+            }
+        }
+        /** the mean of the reported runs */
+        long[] mean = new long[3 + STAGES.length];
+        for(long[] result : results) {
+            for(int i = 0; i < mean.length; i++) {
+                mean[i] += result[i] / results.size();
+            }
+        }
+        report("mean", mean, generator);
+    }
+
+    /**
+     * generate the project and extract its strings.
+     *
+     * @return the nanos of generating, the nanos of extracting and the peak heap bytes.
+     */
+    private static long[] run(ProjectGenerator generator, File dir, int threads, boolean verbose) throws Exception {
+        long start = System.nanoTime();
+        generator.generate(dir);
+        long generated = System.nanoTime();
+
+        System.gc();
+        resetPeakHeap();
+        File statsFile = new File(dir, "stats.json");
+        String[] args = {"-r", "-d", dir.getAbsolutePath(), "-x", new File(dir, "strings.xml").getAbsolutePath(), "-j", String.valueOf(threads), "--stats", statsFile.getAbsolutePath()};
+        PrintStream out = System.out;
+        if(!verbose) {
+            System.setOut(new PrintStream(new OutputStream() {
+
+                @Override
+                public void write(int b) {}
+
+                @Override
+                public void write(byte[] b, int off, int len) {}
+            }));
+        }
+        long extractStart = System.nanoTime();
+        try {
+            StringExtractorTerminal.main(args);
+        } finally {
+            System.setOut(out);
+        }
+        long extracted = System.nanoTime();
+        long[] result = new long[3 + STAGES.length];
+        result[0] = generated - start;
+        result[1] = extracted - extractStart;
+        result[2] = getPeakHeap();
+        /** the wall times of the report are after the totals, before the stats of every file */
+        String json = new String(Files.readAllBytes(statsFile.toPath()), "UTF-8");
+        int wall = json.indexOf("\"wallNanos\"");
+        for(int i = 0; i < STAGES.length; i++) {
+            Matcher matcher = STAGE_PATTERNS[i].matcher(json);
+            result[3 + i] = wall >= 0 && matcher.find(wall) ? Long.parseLong(matcher.group(1)) : 0;
+        }
+        return result;
+    }
+
+    private static void report(String title, long[] result, ProjectGenerator generator) {
+        double seconds = result[1] / 1e9;
+        System.out.printf("%-6s generate %8.1f ms | extract %8.1f ms | %8.1f files/s | %6.2f MB/s | peak heap %6.1f MB%n",
+            title, result[0] / 1e6, result[1] / 1e6, generator.getFileCount() / seconds,
+            generator.getByteCount() / seconds / (1024 * 1024), result[2] / (1024.0 * 1024));
+        StringBuilder stages = new StringBuilder("       stages (wall time):");
+        for(int i = 0; i < STAGES.length; i++) {
+            stages.append(String.format(" %s %.1f ms", STAGES[i], result[3 + i] / 1e6));
+        }
+        System.out.println(stages);
+    }
+
+    private static void resetPeakHeap() {
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /** the sum of the peaks of the heap pools, the pools may not reach their peaks at the same time */
+    private static long getPeakHeap() {
+        long peak = 0;
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static void delete(File dir) throws IOException {
+        Files.walkFileTree(dir.toPath(), new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+/**
+ * Writes a synthetic android project to a directory.
+ *
+ * <p>
+ * Every module gets the java classes under <code>src/main/java</code> and the layouts under
+ * <code>src/main/res/layout</code>, half of the files of a module are java and half are layouts.
+ * The code is generated with {@link SourceGenerator} from a fixed seed,
+ * so the same options always generate the same project.
+ */
+public final class ProjectGenerator {
+
+    private int mModules = 4;
+    private int mFiles = 100;
+    private double mDensity = 0.3;
+    private double mDuplicates = 0.3;
+    private int mJavaSize = 8 * 1024;
+    private int mLayoutSize = 4 * 1024;
+    private long mSeed = 42;
+
+    /** the number of files of the last generated project */
+    private int mFileCount;
+
+    /** the size in bytes of the last generated project */
+    private long mByteCount;
+
+    /** Set the number of modules, default is 4. */
+    public void setModules(int modules) {
+        mModules = modules;
+    }
+
+    /** Set the number of files per module, default is 100. */
+    public void setFiles(int files) {
+        mFiles = files;
+    }
+
+    /** Set the fraction of the lines or views which contain a string, default is 0.3. */
+    public void setDensity(double density) {
+        mDensity = density;
+    }
+
+    /** Set the fraction of the strings which are common to many files, default is 0.3. */
+    public void setDuplicates(double duplicates) {
+        mDuplicates = duplicates;
+    }
+
+    /** Set the size of a java file in chars, default is 8K. */
+    public void setJavaSize(int javaSize) {
+        mJavaSize = javaSize;
+    }
+
+    /** Set the size of a layout xml file in chars, default is 4K. */
+    public void setLayoutSize(int layoutSize) {
+        mLayoutSize = layoutSize;
+    }
+
+    /** Set the seed of the random choices, default is 42. */
+    public void setSeed(long seed) {
+        mSeed = seed;
+    }
+
+    /** @return the number of files of the last generated project. */
+    public int getFileCount() {
+        return mFileCount;
+    }
+
+    /** @return the size in bytes of the last generated project. */
+    public long getByteCount() {
+        return mByteCount;
+    }
+
+    /**
+     * Generate the project in the given directory.
+     *
+     * @param dir the directory to write the project to, it is created if not exists.
+     * @throws IOException if a file cannot be written.
+     */
+    public void generate(File dir) throws IOException {
+        Charset utf8 = Charset.forName("UTF-8");
+        mFileCount = 0;
+        mByteCount = 0;
+        for(int m = 1; m <= mModules; m++) {
+            File module = new File(dir, "module" + m);
+            File javaDir = new File(module, "src/main/java/com/example/module" + m);
+            File layoutDir = new File(module, "src/main/res/layout");
+            javaDir.mkdirs();
+            layoutDir.mkdirs();
+            for(int f = 1; f <= mFiles; f++) {
+                long seed = mSeed * 31 + m * 100003L + f;
+                File file;
+                String code;
+                if(f % 2 == 1) {
+                    String name = "Generated" + f;
+                    code = SourceGenerator.java(name, mJavaSize, mDensity, mDuplicates, seed)
+                        .replace("package com.example.generated;", "package com.example.module" + m + ";");
+                    file = new File(javaDir, name + ".java");
+                } else {
+                    code = SourceGenerator.layout(mLayoutSize, mDensity, mDuplicates, seed);
+                    file = new File(layoutDir, "layout_" + f + ".xml");
+                }
+                byte[] bytes = code.getBytes(utf8);
+                Files.write(file.toPath(), bytes);
+                mFileCount++;
+                mByteCount += bytes.length;
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generates the java, layout and strings xml code used by the benchmarks.
+ *
+ * <p>
+ * The code is generated from a fixed seed, so every run of a benchmark reads the same input.
+ * The density is the fraction of the lines which contain a string to extract,
+ * and the duplicates is the fraction of those strings taken from a small pool of common strings.
+ */
+public final class SourceGenerator {
+
+    /** the common strings which are repeated in many files */
+    private static final String[] COMMON = {
+        "OK", "Cancel", "Loading...", "Retry", "Settings", "Delete", "Are you sure?", "Save", "Share", "Done"
+    };
+
+    private SourceGenerator() {}
+
+    /**
+     * Generate a java class of about the given size.
+     *
+     * @param name       the name of the class.
+     * @param size       the size in chars.
+     * @param density    the fraction of the lines which contain a string, from 0 to 1.
+     * @param duplicates the fraction of the strings which are common, from 0 to 1.
+     * @param seed       the seed of the random choices.
+     * @return the java code.
+     */
+    public static String java(String name, int size, double density, double duplicates, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(size + 256);
+        sb.append("package com.example.generated;\n\n");
+        sb.append("import android.app.Activity;\n\n");
+        sb.append("public class ").append(name).append(" extends Activity {\n\n");
+        int line = 0;
+        while(sb.length() < size) {
+            line++;
+            if(random.nextDouble() < density) {
+                sb.append("    private final String text").append(line).append(" = \"").append(literal(random, duplicates, name, line)).append("\";\n");
+            } else if(line % 7 == 0) {
+                sb.append("    // the value of field ").append(line).append(" with \"quotes\" in comment\n");
+            } else if(line % 11 == 0) {
+                sb.append("    private final char quote").append(line).append(" = '\"';\n");
+            } else {
+                sb.append("    private int value").append(line).append(" = ").append(random.nextInt(100000)).append(" + ").append(line).append(";\n");
+            }
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Generate a layout xml of about the given size.
+     *
+     * @param size       the size in chars.
+     * @param density    the fraction of the views which have a text to extract, from 0 to 1.
+     * @param duplicates the fraction of the texts which are common, from 0 to 1.
+     * @param seed       the seed of the random choices.
+     * @return the xml code.
+     */
+    public static String layout(int size, double density, double duplicates, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(size + 256);
+        sb.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+        sb.append("<LinearLayout xmlns:android=\"http://schemas.android.com/apk/res/android\"\n");
+        sb.append("    android:layout_width=\"match_parent\"\n    android:layout_height=\"match_parent\"\n    android:orientation=\"vertical\">\n\n");
+        int view = 0;
+        while(sb.length() < size) {
+            view++;
+            sb.append("    <TextView\n        android:id=\"@+id/view").append(view).append("\"\n");
+            sb.append("        android:layout_width=\"wrap_content\"\n        android:layout_height=\"wrap_content\"\n");
+            if(random.nextDouble() < density) {
+                sb.append("        android:text=\"").append(literal(random, duplicates, "Label", view)).append("\"");
+            } else {
+                sb.append("        android:text=\"@string/existing").append(view).append("\"");
+            }
+            sb.append("/>\n\n");
+        }
+        sb.append("</LinearLayout>\n");
+        return sb.toString();
+    }
+
+    /**
+     * Generate an unformatted strings xml, as written by a batch of extractions.
+     *
+     * @param count the number of strings.
+     * @param first the number of the first string.
+     * @return the xml code.
+     */
+    public static String strings(int count, int first) {
+        StringBuilder sb = new StringBuilder(count * 64 + 128);
+        sb.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n<resources>");
+        for(int i = first; i < first + count; i++) {
+            sb.append("<string name=\"extracted_string").append(i).append("\">Value ").append(i).append("</string>\n");
+        }
+        sb.append("</resources>");
+        return sb.toString();
+    }
+
+    /** a common string or a string unique to the given owner and line */
+    private static String literal(Random random, double duplicates, String owner, int line) {
+        if(random.nextDouble() < duplicates) {
+            return COMMON[random.nextInt(COMMON.length)];
+        }
+        return owner + " text number " + line;
+    }
+}
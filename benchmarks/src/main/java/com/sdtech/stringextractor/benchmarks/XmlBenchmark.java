@@ -0,0 +1,131 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.benchmarks;
+
+import com.sdtech.stringextractor.XmlFormatter;
+import com.sdtech.stringextractor.XmlWriter;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks writing, merging and formatting the strings xml file.
+ *
+ * <p>
+ * The entries is the number of strings already in the file, and every benchmark writes
+ * the density fraction of that number of new strings, half of them replacing existing names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int entries;
+
+    @Param({"0.1", "0.5"})
+    public double density;
+
+    private byte[] mExisting;
+    private int mNewCount;
+
+    private File mDir;
+    private File mXmlFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mExisting = SourceGenerator.strings(entries, 1).getBytes(Charset.forName("UTF-8"));
+        mNewCount = Math.max(1, (int) (entries * density));
+        mDir = Files.createTempDirectory("xml-benchmark").toFile();
+        mXmlFile = new File(mDir, "strings.xml");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mXmlFile.delete();
+        mDir.delete();
+    }
+
+    /** restore the unformatted xml file with the existing entries */
+    @Setup(Level.Invocation)
+    public void resetFile() throws IOException {
+        Files.write(mXmlFile.toPath(), mExisting);
+    }
+
+    /** write the new strings one by one, flushed per string, then merge with the existing ones */
+    @Benchmark
+    public long writeAndSave() throws IOException {
+        XmlWriter writer = new XmlWriter(mXmlFile);
+        writeNew(writer);
+        writer.save();
+        return mXmlFile.length();
+    }
+
+    /** write the new strings in a batch and commit the file once */
+    @Benchmark
+    public long batchSave() throws IOException {
+        XmlWriter writer = new XmlWriter(mXmlFile, true);
+        writeNew(writer);
+        writer.save();
+        return mXmlFile.length();
+    }
+
+    /** merge the existing strings of the file without writing new ones */
+    @Benchmark
+    public long merge() throws IOException {
+        XmlWriter writer = new XmlWriter(mXmlFile);
+        writer.close();
+        writer.merge();
+        return mXmlFile.length();
+    }
+
+    @Benchmark
+    public long formatXml() throws IOException {
+        new XmlFormatter(mXmlFile).formatXml();
+        return mXmlFile.length();
+    }
+
+    /** half of the new strings replace existing names, the others are new names */
+    private void writeNew(XmlWriter writer) throws IOException {
+        int first = entries - mNewCount / 2 + 1;
+        for(int i = 0; i < mNewCount; i++) {
+            writer.write("extracted_string" + (first + i), "New value " + i);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+#!/bin/sh
+#
+# Copyright 2025 Suleman 'sdtech' Hamisu
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+# Build build/stringextractor.jar and an AppCDS archive build/stringextractor.jsa of the classes
+# loaded by the terminal, so later runs map them from the archive instead of loading them one by one.
+#
+# The classes are listed while extracting a small generated project, once for a single file and once
+# recursively, then the archive is dumped from both lists, which needs JDK 10 or later. The archive only
+# works with the JDK which created it, run this script again after updating the JDK or the sources.
+#
+# usage: scripts/appcds.sh
+#   then: java -XX:SharedArchiveFile=build/stringextractor.jsa -jar build/stringextractor.jar [options]
+
+set -e
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+BUILD="$ROOT/build"
+JAR="$BUILD/stringextractor.jar"
+ARCHIVE="$BUILD/stringextractor.jsa"
+MAIN=com.sdtech.stringextractor.terminal.StringExtractorTerminal
+
+rm -rf "$BUILD/classes" "$BUILD/training"
+mkdir -p "$BUILD/classes" "$BUILD/training"
+
+# compile the sources into a jar, the archive only records classes loaded from jars.
+# the string concatenations are compiled to StringBuilder calls like with -source 7, the
+# invokedynamic concatenations of newer javac spin method handle classes on their first use
+find "$ROOT/src" -name '*.java' > "$BUILD/sources.txt"
+javac -nowarn -encoding UTF-8 -XDstringConcat=inline -d "$BUILD/classes" @"$BUILD/sources.txt"
+printf 'Main-Class: %s\n' "$MAIN" > "$BUILD/manifest.txt"
+jar cfm "$JAR" "$BUILD/manifest.txt" -C "$BUILD/classes" .
+
+# generate a small project for the training runs
+TRAINING="$BUILD/training/app"
+mkdir -p "$TRAINING/src/com/example" "$TRAINING/res/layout"
+for i in 1 2 3 4; do
+    cat > "$TRAINING/src/com/example/Screen$i.java" <<EOF
+package com.example;
+
+public class Screen$i {
+    String title = "Screen $i";
+    String message = "Hello \"user\" $i";
+    String key = "";
+}
+EOF
+    cat > "$TRAINING/res/layout/screen$i.xml" <<EOF
+<?xml version="1.0" encoding="utf-8"?>
+<LinearLayout xmlns:android="http://schemas.android.com/apk/res/android">
+    <Button android:text="Press $i" android:hint="Label $i"/>
+</LinearLayout>
+EOF
+done
+
+# list the classes of a single file and a recursive extraction, then dump them in one archive
+java -XX:DumpLoadedClassList="$BUILD/training/single.classlist" -jar "$JAR" -i "$TRAINING/src/com/example/Screen1.java" -x "$BUILD/training/single.xml" > /dev/null
+java -XX:DumpLoadedClassList="$BUILD/training/recursive.classlist" -jar "$JAR" -rc -d "$TRAINING" -x "$BUILD/training/strings.xml" > /dev/null
+sort -u "$BUILD/training/single.classlist" "$BUILD/training/recursive.classlist" > "$BUILD/stringextractor.classlist"
+rm -f "$ARCHIVE"
+java -Xshare:dump -XX:SharedClassListFile="$BUILD/stringextractor.classlist" -XX:SharedArchiveFile="$ARCHIVE" -cp "$JAR" > /dev/null
+
+rm -rf "$BUILD/classes" "$BUILD/training" "$BUILD/sources.txt" "$BUILD/manifest.txt" "$BUILD/stringextractor.classlist"
+echo "run with: java -XX:SharedArchiveFile=$ARCHIVE -jar $JAR [options]"
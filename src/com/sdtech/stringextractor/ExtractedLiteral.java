@@ -0,0 +1,83 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor;
+
+import java.nio.file.Path;
+
+/**
+ * A string found by {@link StringExtractor#scan(Path)}, without extracting it.
+ *
+ * <p>
+ * The raw value is the text of the string as written in the file, e.g with the escapes of java
+ * or the entities of xml. The proposed name is the name the string would get if the same files
+ * are extracted with the same options in the same order.
+ */
+public final class ExtractedLiteral {
+
+    private final Path mFile;
+    private final int mOffset;
+    private final int mLine;
+    private final String mRawValue;
+    private final String mProposedName;
+
+    /**
+     * Create the literal.
+     *
+     * @param file         the file the string was found in.
+     * @param offset       the offset of the first char of the string in the text of the file.
+     * @param line         the line of the string, starting from 1.
+     * @param rawValue     the text of the string.
+     * @param proposedName the name the string would get.
+     */
+    public ExtractedLiteral(Path file, int offset, int line, String rawValue, String proposedName) {
+        mFile = file;
+        mOffset = offset;
+        mLine = line;
+        mRawValue = rawValue;
+        mProposedName = proposedName;
+    }
+
+    /** @return the file the string was found in. */
+    public Path getFile() {
+        return mFile;
+    }
+
+    /** @return the offset of the first char of the string in the text of the file. */
+    public int getOffset() {
+        return mOffset;
+    }
+
+    /** @return the line of the string, starting from 1. */
+    public int getLine() {
+        return mLine;
+    }
+
+    /** @return the text of the string as written in the file. */
+    public String getRawValue() {
+        return mRawValue;
+    }
+
+    /** @return the name the string would get when extracted. */
+    public String getProposedName() {
+        return mProposedName;
+    }
+
+    @Override
+    public String toString() {
+        return mFile + ":" + mLine + ": " + mProposedName + " = " + mRawValue;
+    }
+}
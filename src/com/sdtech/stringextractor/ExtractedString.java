@@ -40,6 +40,19 @@ public abstract class ExtractedString {
      * @return The new created ExtractedString class instance.
      */
      public static ExtractedString getInstance(){
-         return new MainExtractedString();
+         return new MainExtractedString(false);
+     }
+
+    /**
+     * Create the new Instance of ExtractedString which generates the class with or without a cache.
+     *
+     * <p>The cached class keeps the strings in a thread safe table keyed by resource id, which is filled
+     * when a string is got the first time and cleared when the context is set again or the locale changes.
+     *
+     * @param cached indicates whether the generated class caches the strings.
+     * @return The new created ExtractedString class instance.
+     */
+     public static ExtractedString getInstance(boolean cached){
+         return new MainExtractedString(cached);
      }
 }
@@ -0,0 +1,193 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor;
+
+import java.nio.charset.Charset;
+
+/**
+ * The immutable options of an extraction.
+ *
+ * <p>
+ * Unlike the setters of {@link StringExtractor}, a config cannot change after it is built,
+ * so a single config can be shared by the threads which extract many files at the same time.
+ * <pre>
+ * ExtractionConfig config = new ExtractionConfig.Builder()
+ *     .setPrefix("app_%s")
+ *     .setXmlAttributes("android:text", "android:hint")
+ *     .build();
+ * </pre>
+ */
+public final class ExtractionConfig {
+
+    private final boolean mExtractedString;
+    private final boolean mCachedExtractedString;
+    private final String mPrefix;
+    private final String mSuffix;
+    private final boolean mBackupFile;
+    private final String[] mXmlAttributes;
+    private final Charset mCharset;
+    private final ExtractionStats mStats;
+
+    private ExtractionConfig(Builder builder) {
+        mExtractedString = builder.mExtractedString;
+        mCachedExtractedString = builder.mCachedExtractedString;
+        mPrefix = builder.mPrefix;
+        mSuffix = builder.mSuffix;
+        mBackupFile = builder.mBackupFile;
+        mXmlAttributes = builder.mXmlAttributes.clone();
+        mCharset = builder.mCharset;
+        mStats = builder.mStats;
+    }
+
+    /**
+     * Create a config with the current options of the given extractor.
+     *
+     * @param extractor the extractor to copy the options from.
+     * @return the config.
+     */
+    public static ExtractionConfig of(StringExtractor extractor) {
+        return new Builder()
+            .setExtractedString(extractor.isExtractedString())
+            .setCachedExtractedString(extractor.isCachedExtractedString())
+            .setPrefix(extractor.getPrefix())
+            .setSuffix(extractor.getSuffix())
+            .setBackupFile(extractor.isBackupFile())
+            .setXmlAttributes(extractor.getXmlAttributes())
+            .setCharset(extractor.getCharset())
+            .setStats(extractor.getStats())
+            .build();
+    }
+
+    /** @return Returns whether ExtractedString class is used to get the strings from java files. */
+    public boolean isExtractedString() {
+        return mExtractedString;
+    }
+
+    /** @return Returns whether the generated ExtractedString class caches the strings it gets. */
+    public boolean isCachedExtractedString() {
+        return mCachedExtractedString;
+    }
+
+    /** @return Returns the prefix of the string names, null if not set. */
+    public String getPrefix() {
+        return mPrefix;
+    }
+
+    /** @return Returns the suffix of the string names, null if not set. */
+    public String getSuffix() {
+        return mSuffix;
+    }
+
+    /** @return Returns whether the files are backed up before they are modified. */
+    public boolean isBackupFile() {
+        return mBackupFile;
+    }
+
+    /** @return Returns a copy of the names of the xml attributes to extract the values of. */
+    public String[] getXmlAttributes() {
+        return mXmlAttributes.clone();
+    }
+
+    /** @return Returns the charset of the files without byte order mark, null if not set. */
+    public Charset getCharset() {
+        return mCharset;
+    }
+
+    /** @return Returns the stats to record the extraction to, null if not set. */
+    public ExtractionStats getStats() {
+        return mStats;
+    }
+
+    /** @return Returns a builder with the options of this config. */
+    public Builder toBuilder() {
+        return new Builder()
+            .setExtractedString(mExtractedString)
+            .setCachedExtractedString(mCachedExtractedString)
+            .setPrefix(mPrefix)
+            .setSuffix(mSuffix)
+            .setBackupFile(mBackupFile)
+            .setXmlAttributes(mXmlAttributes)
+            .setCharset(mCharset)
+            .setStats(mStats);
+    }
+
+    /** The builder of {@link ExtractionConfig}. */
+    public static final class Builder {
+
+        private boolean mExtractedString;
+        private boolean mCachedExtractedString;
+        private String mPrefix;
+        private String mSuffix;
+        private boolean mBackupFile;
+        private String[] mXmlAttributes = StringExtractor.getDefaultXmlAttributes();
+        private Charset mCharset;
+        private ExtractionStats mStats;
+
+        /** @see StringExtractor#setExtractedString(boolean) */
+        public Builder setExtractedString(boolean extractedString) {
+            mExtractedString = extractedString;
+            return this;
+        }
+
+        /** @see StringExtractor#setCachedExtractedString(boolean) */
+        public Builder setCachedExtractedString(boolean cachedExtractedString) {
+            mCachedExtractedString = cachedExtractedString;
+            return this;
+        }
+
+        /** @see StringExtractor#setPrefix(String) */
+        public Builder setPrefix(String prefix) {
+            mPrefix = prefix;
+            return this;
+        }
+
+        /** @see StringExtractor#setSuffix(String) */
+        public Builder setSuffix(String suffix) {
+            mSuffix = suffix;
+            return this;
+        }
+
+        /** @see StringExtractor#setBackupFile(boolean) */
+        public Builder setBackupFile(boolean backupFile) {
+            mBackupFile = backupFile;
+            return this;
+        }
+
+        /** @see StringExtractor#setXmlAttributes(String...) */
+        public Builder setXmlAttributes(String... xmlAttributes) {
+            mXmlAttributes = xmlAttributes == null || xmlAttributes.length == 0 ? StringExtractor.getDefaultXmlAttributes() : xmlAttributes.clone();
+            return this;
+        }
+
+        /** @see StringExtractor#setCharset(Charset) */
+        public Builder setCharset(Charset charset) {
+            mCharset = charset;
+            return this;
+        }
+
+        /** @see StringExtractor#setStats(ExtractionStats) */
+        public Builder setStats(ExtractionStats stats) {
+            mStats = stats;
+            return this;
+        }
+
+        /** @return Returns the config with the options of this builder. */
+        public ExtractionConfig build() {
+            return new ExtractionConfig(this);
+        }
+    }
+}
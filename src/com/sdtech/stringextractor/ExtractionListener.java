@@ -0,0 +1,34 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor;
+
+/**
+ * Listener notified by {@link ExtractionStats} when the extraction of a file is done.
+ *
+ * <p>
+ * The files of a multi files extraction are notified in the order of the given files,
+ * after all of them are linked.
+ */
+public interface ExtractionListener {
+
+    /**
+     * Called when the extraction of a file is done.
+     *
+     * @param stats the statistics of the file.
+     */
+    void onFileExtracted(ExtractionStats.FileStats stats);
+}
@@ -0,0 +1,311 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor;
+
+import com.sdtech.stringextractor.core.JsonStrings;
+
+import java.io.File;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The statistics of an extraction, per file and for all files.
+ *
+ * <p>
+ * Set the stats to the extractor with {@link StringExtractor#setStats(ExtractionStats)} or pass them
+ * to {@link StringExtractor#extractStrings}, then read the counters after the extraction or get
+ * them file by file with an {@link ExtractionListener}. The time of every {@link Phase} is
+ * measured with {@link System#nanoTime()}, the phases of the files extracted in parallel are
+ * added together so the sum may be bigger than the wall time. The wall time of every {@link Stage}
+ * of an extraction of many files is measured once for all files.
+ *
+ * <p>
+ * The stats are thread safe.
+ */
+public final class ExtractionStats {
+
+    /** The phases of the extraction which are timed. */
+    public enum Phase {
+        /** reading and decoding the files. */
+        READ("read"),
+        /** finding the strings in the text. */
+        SCAN("scan"),
+        /** replacing the strings in the text and writing the files back. */
+        REWRITE("rewrite"),
+        /** writing the strings xml file. */
+        XML_WRITE("xmlWrite"),
+        /** merging the new strings with the strings in the xml file. */
+        MERGE("merge"),
+        /** formatting the xml file. */
+        FORMAT("format");
+
+        private final String mKey;
+
+        Phase(String key) {
+            mKey = key;
+        }
+
+        /** @return the name of the phase in the json report. */
+        public String getKey() {
+            return mKey;
+        }
+    }
+
+    /** The stages of an extraction of many files, each one is done for all files before the next one. */
+    public enum Stage {
+        /** reading and scanning all files in parallel. */
+        SCAN("scan"),
+        /** numbering the strings of all files in order. */
+        NUMBER("number"),
+        /** writing, merging and formatting the strings xml file. */
+        XML("xml"),
+        /** linking all files in parallel. */
+        LINK("link");
+
+        private final String mKey;
+
+        Stage(String key) {
+            mKey = key;
+        }
+
+        /** @return the name of the stage in the json report. */
+        public String getKey() {
+            return mKey;
+        }
+    }
+
+    /** The statistics of a single file. */
+    public static final class FileStats {
+
+        private final File mFile;
+        private long mBytesRead;
+        private int mLiteralsMatched;
+        private int mBlankLiterals;
+        private int mDuplicateLiterals;
+        private boolean mSkipped;
+        private final long[] mNanos = new long[Phase.values().length];
+
+        /** @param file the file of the stats. */
+        public FileStats(File file) {
+            mFile = file;
+        }
+
+        /** Add the number of bytes read from the file. */
+        public synchronized void addBytesRead(long bytes) {
+            mBytesRead += bytes;
+        }
+
+        /**
+         * Add the strings found in the file.
+         *
+         * @param matched   the number of strings found and extracted, including duplicates.
+         * @param blank     the number of strings skipped because they are empty or blank.
+         * @param duplicate the number of strings found before in the same or another file.
+         */
+        public synchronized void addLiterals(int matched, int blank, int duplicate) {
+            mLiteralsMatched += matched;
+            mBlankLiterals += blank;
+            mDuplicateLiterals += duplicate;
+        }
+
+        /** Add the time spent in the given phase. */
+        public synchronized void addNanos(Phase phase, long nanos) {
+            mNanos[phase.ordinal()] += nanos;
+        }
+
+        /** Mark the file as skipped without decoding because its bytes have no string. */
+        public synchronized void setSkipped() {
+            mSkipped = true;
+        }
+
+        /** @return the file of the stats. */
+        public File getFile() {
+            return mFile;
+        }
+
+        /** @return the number of bytes read from the file. */
+        public synchronized long getBytesRead() {
+            return mBytesRead;
+        }
+
+        /** @return the number of strings found and extracted, including duplicates. */
+        public synchronized int getLiteralsMatched() {
+            return mLiteralsMatched;
+        }
+
+        /** @return the number of strings skipped because they are empty or blank. */
+        public synchronized int getBlankLiterals() {
+            return mBlankLiterals;
+        }
+
+        /** @return the number of strings found before in the same or another file. */
+        public synchronized int getDuplicateLiterals() {
+            return mDuplicateLiterals;
+        }
+
+        /** @return the nanoseconds spent in the given phase. */
+        public synchronized long getNanos(Phase phase) {
+            return mNanos[phase.ordinal()];
+        }
+
+        /** @return true if the file was skipped without decoding because its bytes have no string. */
+        public synchronized boolean isSkipped() {
+            return mSkipped;
+        }
+    }
+
+    private final List<FileStats> mFiles = new ArrayList<FileStats>();
+    private final List<ExtractionListener> mListeners = new CopyOnWriteArrayList<ExtractionListener>();
+    private long mBytesRead;
+    private long mLiteralsMatched;
+    private long mBlankLiterals;
+    private long mDuplicateLiterals;
+    private int mSkippedFiles;
+    private final long[] mNanos = new long[Phase.values().length];
+    private final long[] mWallNanos = new long[Stage.values().length];
+
+    /** Add a listener notified when the extraction of a file is done. */
+    public void addListener(ExtractionListener listener) {
+        mListeners.add(listener);
+    }
+
+    /** Remove the given listener. */
+    public void removeListener(ExtractionListener listener) {
+        mListeners.remove(listener);
+    }
+
+    /**
+     * Add the stats of an extracted file to the totals and notify the listeners.
+     *
+     * @param stats the stats of the file.
+     */
+    public void add(FileStats stats) {
+        synchronized(this) {
+            mFiles.add(stats);
+            mBytesRead += stats.getBytesRead();
+            mLiteralsMatched += stats.getLiteralsMatched();
+            mBlankLiterals += stats.getBlankLiterals();
+            mDuplicateLiterals += stats.getDuplicateLiterals();
+            if(stats.isSkipped()) {
+                mSkippedFiles++;
+            }
+            for(Phase phase : Phase.values()) {
+                mNanos[phase.ordinal()] += stats.getNanos(phase);
+            }
+        }
+        for(ExtractionListener listener : mListeners) {
+            listener.onFileExtracted(stats);
+        }
+    }
+
+    /** Add the time spent in the given phase which is not done for a single file, e.g writing the xml file of all files. */
+    public synchronized void addNanos(Phase phase, long nanos) {
+        mNanos[phase.ordinal()] += nanos;
+    }
+
+    /** Add the wall time of the given stage of an extraction of many files. */
+    public synchronized void addWallNanos(Stage stage, long nanos) {
+        mWallNanos[stage.ordinal()] += nanos;
+    }
+
+    /** @return the stats of the extracted files, in the order they was added. */
+    public synchronized List<FileStats> getFiles() {
+        return Collections.unmodifiableList(new ArrayList<FileStats>(mFiles));
+    }
+
+    /** @return the number of files which was skipped without decoding because their bytes have no string. */
+    public synchronized int getSkippedFiles() {
+        return mSkippedFiles;
+    }
+
+    /** @return the number of bytes read from all files. */
+    public synchronized long getBytesRead() {
+        return mBytesRead;
+    }
+
+    /** @return the number of strings found and extracted from all files, including duplicates. */
+    public synchronized long getLiteralsMatched() {
+        return mLiteralsMatched;
+    }
+
+    /** @return the number of strings skipped because they are empty or blank. */
+    public synchronized long getBlankLiterals() {
+        return mBlankLiterals;
+    }
+
+    /** @return the number of strings found before in the same or another file. */
+    public synchronized long getDuplicateLiterals() {
+        return mDuplicateLiterals;
+    }
+
+    /** @return the nanoseconds spent in the given phase by all files. */
+    public synchronized long getNanos(Phase phase) {
+        return mNanos[phase.ordinal()];
+    }
+
+    /** @return the wall nanoseconds of the given stage of the extractions of many files. */
+    public synchronized long getWallNanos(Stage stage) {
+        return mWallNanos[stage.ordinal()];
+    }
+
+    /**
+     * Generate the json report of the stats, with the totals and the stats of every file.
+     *
+     * @return the json code.
+     */
+    public synchronized String toJson() {
+        StringBuilder json = new StringBuilder(256 + mFiles.size() * 256);
+        json.append("{\n  \"files\": ").append(mFiles.size()).append(",\n");
+        json.append("  \"skippedFiles\": ").append(mSkippedFiles).append(",\n");
+        appendCounters(json, "  ", mBytesRead, mLiteralsMatched, mBlankLiterals, mDuplicateLiterals, mNanos);
+        json.append(",\n  \"wallNanos\": {");
+        for(Stage stage : Stage.values()) {
+            json.append(stage.ordinal() == 0 ? " " : ", ").append('"').append(stage.getKey()).append("\": ").append(mWallNanos[stage.ordinal()]);
+        }
+        json.append(" }");
+        json.append(",\n  \"perFile\": [");
+        for(int i = 0; i < mFiles.size(); i++) {
+            FileStats file = mFiles.get(i);
+            json.append(i == 0 ? "\n" : ",\n").append("    {\n      \"file\": ");
+            JsonStrings.append(json, file.getFile().getPath());
+            json.append(",\n      \"skipped\": ").append(file.isSkipped()).append(",\n");
+            long[] nanos = new long[mNanos.length];
+            for(Phase phase : Phase.values()) {
+                nanos[phase.ordinal()] = file.getNanos(phase);
+            }
+            appendCounters(json, "      ", file.getBytesRead(), file.getLiteralsMatched(), file.getBlankLiterals(), file.getDuplicateLiterals(), nanos);
+            json.append("\n    }");
+        }
+        json.append(mFiles.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+        return json.toString();
+    }
+
+    private static void appendCounters(StringBuilder json, String indent, long bytesRead, long matched, long blank, long duplicate, long[] nanos) {
+        json.append(indent).append("\"bytesRead\": ").append(bytesRead).append(",\n");
+        json.append(indent).append("\"literalsMatched\": ").append(matched).append(",\n");
+        json.append(indent).append("\"literalsBlank\": ").append(blank).append(",\n");
+        json.append(indent).append("\"literalsDuplicate\": ").append(duplicate).append(",\n");
+        json.append(indent).append("\"nanos\": {");
+        for(Phase phase : Phase.values()) {
+            json.append(phase.ordinal() == 0 ? " " : ", ").append('"').append(phase.getKey()).append("\": ").append(nanos[phase.ordinal()]);
+        }
+        json.append(" }");
+    }
+}
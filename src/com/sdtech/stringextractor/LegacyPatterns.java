@@ -0,0 +1,77 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.sdtech.stringextractor;
+
+import java.util.regex.Pattern;
+
+/**
+ * The regex patterns which was used to find the strings before the lexers, kept for custom implementations.
+ *
+ * <p>
+ * The patterns are referenced explicitly, like {@code LegacyPatterns.JAVA_STRING_PATTERN}, they are
+ * compiled only when one of them is used the first time, so an extraction which does not use them
+ * does not load the regex engine. The subclasses of {@link StringExtractor} can also reach them with
+ * {@link StringExtractor#getJavaStringPattern()} and {@link StringExtractor#getXmlStringPattern()}.
+ *
+ * @deprecated the java files are scanned with {@link com.sdtech.stringextractor.core.JavaLiteralLexer}
+ * and the xml files with {@link com.sdtech.stringextractor.core.XmlAttributeScanner}.
+ */
+@Deprecated
+public final class LegacyPatterns {
+
+    private LegacyPatterns() {
+    }
+
+    /**
+     * pattern for matching any non blank string in java
+     *
+     * @deprecated the java files are scanned with {@link com.sdtech.stringextractor.core.JavaLiteralLexer}
+     * which skips comments, char literals and escaped qoutes. kept for custom implementations.
+     */
+    @Deprecated
+    public static final Pattern JAVA_STRING_PATTERN = Pattern.compile("\".*?\"", Pattern.CASE_INSENSITIVE);
+
+    /** 
+     * pattern for matching supported xml attributes 
+     * text,title,label,hint,summary and description
+     *
+     * @deprecated the xml files are scanned with {@link com.sdtech.stringextractor.core.XmlAttributeScanner}
+     * which supports single qouted and multi line values. kept for custom implementations.
+     */
+    @Deprecated
+    public static final Pattern XML_STRING_PATTERN = Pattern.compile("(" +
+    /** matches android:text="*" which is not starts with '?' or '@' */
+    "android\\:text=\"[^@\\?]{1}.*?\"|" +
+
+    /** matches android:title="*" which is not starts with '?' or '@' */
+    "android\\:title=\"[^@\\?]{1}.*?\"|" +
+
+    /** matches android:hint="*" which is not starts with '?' or '@' */
+    "android\\:hint=\"[^@\\?]{1}.*?\"|" +
+
+    /** matches android:summary="*" which is not starts with '?' or '@' */
+    "android\\:summary=\"[^@\\?]{1}.*?\"|" +
+
+    /** matches android:description="*" which is not starts with '? or '@' */
+    "android\\:description=\"[^@\\?]{1}.*?\"|" +
+
+    /** matches android:label="*" which is not starts with '?' or '@' */
+    "android\\:label=\"[^@\\?]{1}.*?\"" +
+
+    ")", Pattern.CASE_INSENSITIVE);
+}
@@ -16,18 +16,31 @@
 
 package com.sdtech.stringextractor;
 
+import com.sdtech.stringextractor.core.ExtractionCache;
+import com.sdtech.stringextractor.core.ExtractionEngine;
+import com.sdtech.stringextractor.core.ExtractionSession;
+import com.sdtech.stringextractor.core.ExtractionWatcher;
 import com.sdtech.stringextractor.core.MainExtractor;
+import com.sdtech.stringextractor.core.SourceWalker;
 
 import java.io.File;
+import java.io.IOException;
 
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Iterator;
 import java.util.regex.Pattern;
+import java.util.List;
 
 /**
  * StringExtractor is used to extracts raw strings from
  * a java and xml files to a optional xml file and link them.
  * <p>
  * StringExtract extracts any non blank strings from java file.
- * and only extracts the strings from supported xml attributes below:
+ * and only extracts the strings from the xml attributes set with {@link #setXmlAttributes(String...)},
+ * which are the following by default:
  *
  * <ul>
  *     <li>android:text</li>
@@ -60,44 +73,52 @@ public abstract class StringExtractor {
     protected final String XML_CODE="@string/";
 
     /**
-     * pattern for matching any non blank string in java
+     * pattern for matching any non blank string in java, compiled on the first call.
+     *
+     * @deprecated the java files are scanned with {@link com.sdtech.stringextractor.core.JavaLiteralLexer},
+     * this replaces the <code>JAVA_STRING_PATTERN</code> field for custom implementations.
      */
-    protected final Pattern JAVA_STRING_PATTERN = Pattern.compile("\".*?\"", Pattern.CASE_INSENSITIVE);
+    @Deprecated
+    protected static Pattern getJavaStringPattern() {
+        return LegacyPatterns.JAVA_STRING_PATTERN;
+    }
 
-    /** 
-     * pattern for matching supported xml attributes 
-     * text,title,label,hint,summary and description
+    /**
+     * pattern for matching supported xml attributes text,title,label,hint,summary and description,
+     * compiled on the first call.
+     *
+     * @deprecated the xml files are scanned with {@link com.sdtech.stringextractor.core.XmlAttributeScanner},
+     * this replaces the <code>XML_STRING_PATTERN</code> field for custom implementations.
      */
-    protected final Pattern XML_STRING_PATTERN = Pattern.compile("(" +
-    /** matches android:text="*" which is not starts with '?' or '@' */
-    "android\\:text=\"[^@\\?]{1}.*?\"|" +
-
-    /** matches android:title="*" which is not starts with '?' or '@' */
-    "android\\:title=\"[^@\\?]{1}.*?\"|" +
-
-    /** matches android:hint="*" which is not starts with '?' or '@' */
-    "android\\:hint=\"[^@\\?]{1}.*?\"|" +
-
-    /** matches android:summary="*" which is not starts with '?' or '@' */
-    "android\\:summary=\"[^@\\?]{1}.*?\"|" +
-
-    /** matches android:description="*" which is not starts with '? or '@' */
-    "android\\:description=\"[^@\\?]{1}.*?\"|" +
-
-    /** matches android:label="*" which is not starts with '?' or '@' */
-    "android\\:label=\"[^@\\?]{1}.*?\"" +
-
-    ")", Pattern.CASE_INSENSITIVE);
+    @Deprecated
+    protected static Pattern getXmlStringPattern() {
+        return LegacyPatterns.XML_STRING_PATTERN;
+    }
 
+    /**
+     * the xml attributes to extract strings from if not set, never returned so it cannot be modified.
+     */
+    private static final String[] DEFAULT_XML_ATTRIBUTES = {
+        "android:text",
+        "android:title",
+        "android:hint",
+        "android:summary",
+        "android:description",
+        "android:label"
+    };
 
     protected File fileToRead;
     protected File xmlFile;
     protected boolean extractedString;
+    protected boolean cachedExtractedString;
     protected String prefix;
     protected String suffix;
     protected boolean backupFile;
     protected boolean modeRecursive;
     protected int extractCount;
+    protected String[] xmlAttributes = DEFAULT_XML_ATTRIBUTES.clone();
+    protected Charset charset;
+    protected ExtractionStats stats;
 
 
     /** create the Extractor */
@@ -157,6 +178,27 @@ public abstract class StringExtractor {
         return extractedString;
     }
 
+    /**
+     * Generate the ExtractedString class with a cache of the strings it gets.
+     *
+     * <p>The cached class keeps every string it gets by resource id, so getting the same string again
+     * does not look up the resources. The cache is cleared when the context is set again or the locale changes.
+     * This is only used if {@link #setExtractedString(boolean)} is enabled.
+     *
+     * @param cachedExtractedString indicates whether to generate the cached ExtractedString class or not.
+     * @see {@link ExtractedString#getInstance(boolean)}
+     */
+    public void setCachedExtractedString(boolean cachedExtractedString) {
+        this.cachedExtractedString = cachedExtractedString;
+    }
+
+    /**
+     * @return Returns whether the cached ExtractedString class is generated or not.
+     */
+    public boolean isCachedExtractedString() {
+        return cachedExtractedString;
+    }
+
     /**
      * Set prefix string to use when generating extracted string names in xml file.
      *
@@ -244,6 +286,72 @@ public abstract class StringExtractor {
         return extractCount;
     }
 
+    /**
+     * Set the xml attributes to extract the strings from, e.g android:text.
+     *
+     * <p> The names are matched ignoring case. {@link #getDefaultXmlAttributes()} are used if null or empty.
+     *
+     * @param xmlAttributes The names of the attributes to extract the values of.
+     */
+    public void setXmlAttributes(String... xmlAttributes) {
+        this.xmlAttributes = xmlAttributes == null || xmlAttributes.length == 0 ? DEFAULT_XML_ATTRIBUTES.clone() : xmlAttributes.clone();
+    }
+
+    /**
+     * @return Returns a copy of the names of the xml attributes to extract the values of.
+     * @see {@link #setXmlAttributes()}
+     */
+    public String[] getXmlAttributes() {
+        return xmlAttributes.clone();
+    }
+
+    /**
+     * @return Returns a copy of the names of the xml attributes extracted when none is set:
+     * android:text, android:title, android:hint, android:summary, android:description and android:label.
+     */
+    public static String[] getDefaultXmlAttributes() {
+        return DEFAULT_XML_ATTRIBUTES.clone();
+    }
+
+    /**
+     * Set the charset to read and write the files which do not start with a byte order mark.
+     *
+     * <p> UTF-8 is used if not set. A file which starts with UTF-8 or UTF-16 byte order mark is always read
+     * and written back with the charset of its byte order mark.
+     *
+     * @param charset The charset of the files to read.
+     */
+    public void setCharset(Charset charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * @return Returns The charset set to read the files, null if not set.
+     * @see {@link #setCharset()}
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Set the stats to record the counters and the time of every phase of the extraction to.
+     *
+     * <p> Nothing is recorded if null, which is the default.
+     *
+     * @param stats The stats to record to.
+     */
+    public void setStats(ExtractionStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * @return Returns The stats to record the extraction to, null if not set.
+     * @see {@link #setStats()}
+     */
+    public ExtractionStats getStats() {
+        return stats;
+    }
+
     /**
      * Start the extraction using provided file(s) and option(s).
      *
@@ -265,6 +373,17 @@ public abstract class StringExtractor {
      * @throws ExtractionException      when an exception occured during extracting strings from file.
      */
     public static void extractString(File fileToRead, File xmlFile, boolean extractedString, String prefix, String suffix, boolean backupFile, boolean modeRecursive, int extractCount) throws ExtractionException {
+        extractString(fileToRead, xmlFile, extractedString, prefix, suffix, backupFile, modeRecursive, extractCount, DEFAULT_XML_ATTRIBUTES);
+    }
+
+    /**
+     * Same as {@link #extractString(File, File, boolean, String, String, boolean, boolean, int)}
+     * but extracts the strings of the given xml attributes instead of {@link #getDefaultXmlAttributes()}.
+     *
+     * @param xmlAttributes   the names of the xml attributes to extract the values of, e.g android:text.
+     * @throws ExtractionException      when an exception occured during extracting strings from file.
+     */
+    public static void extractString(File fileToRead, File xmlFile, boolean extractedString, String prefix, String suffix, boolean backupFile, boolean modeRecursive, int extractCount, String[] xmlAttributes) throws ExtractionException {
         StringExtractor extractor = MainExtractor.getExtractor();
         extractor.setBackupFile(backupFile);
         extractor.setExtractCount(extractCount);
@@ -274,7 +393,278 @@ public abstract class StringExtractor {
         extractor.setPrefix(prefix);
         extractor.setSuffix(suffix);
         extractor.setXmlFile(xmlFile);
+        extractor.setXmlAttributes(xmlAttributes);
         extractor.startExtraction();
     }
-}
 
+    /**
+     * Extracts the strings from multiple xml or java files in parallel and link them.
+     *
+     * <p>
+     * The strings of every file are numbered in the order of the given files,
+     * the first file strings start from 1 and every next file continue from the last number of previous one.
+     * A string found in many files is written once, and every file links it with the name given by the first file.
+     * So the result is the same whatever the number of threads is.
+     * The strings of all files are written to the xml file once after all files are scanned.
+     *
+     * @param filesToRead     the valid xml or java files to read and extract strings from.
+     * @param xmlFile         the file to write the extracted strings of all files.
+     * @param extractedString if true the class ExtractedString will be used to get the strings from java files.
+     * @param prefix          the String to use as prefix for generating strings name in xml
+     * @param suffix          the String to use as suffix for generating strings name in xml
+     * @param backupFile      indicates wether to backup the files before writing the extracted strings to file.
+     * @param xmlAttributes   the names of the xml attributes to extract the values of, {@link #getDefaultXmlAttributes()} are used if null.
+     * @param charset         the charset of the files without byte order mark, UTF-8 is used if null.
+     * @param threads         the number of threads to use, the number of available processors is used if less than 1.
+     * @return the number of distinct strings extracted from all files.
+     * @throws ExtractionException      when the extraction is interrupted or the xml file cannot be written.
+     */
+    public static int extractStrings(List<File> filesToRead, File xmlFile, boolean extractedString, String prefix, String suffix, boolean backupFile, String[] xmlAttributes, Charset charset, int threads) throws ExtractionException {
+        return extractStrings(filesToRead, xmlFile, extractedString, prefix, suffix, backupFile, xmlAttributes, charset, threads, null);
+    }
+
+    /**
+     * Extracts the strings from multiple xml or java files in parallel and link them, skipping the files
+     * which was not changed since the last run recorded in the given manifest.
+     *
+     * <p>
+     * The manifest records the size, the last modified time and the content hash of every file
+     * with the strings extracted from it. A file with the same size and time is not read,
+     * and a file with the same content is not extracted again. The new strings are numbered after
+     * the last number recorded, so the names of the strings extracted before do not change.
+     * The xml file is rebuilt from the strings of all files and the manifest is saved after the run.
+     *
+     * @param filesToRead     the valid xml or java files to read and extract strings from.
+     * @param xmlFile         the file to write the extracted strings of all files.
+     * @param extractedString if true the class ExtractedString will be used to get the strings from java files.
+     * @param prefix          the String to use as prefix for generating strings name in xml
+     * @param suffix          the String to use as suffix for generating strings name in xml
+     * @param backupFile      indicates wether to backup the files before writing the extracted strings to file.
+     * @param xmlAttributes   the names of the xml attributes to extract the values of, {@link #getDefaultXmlAttributes()} are used if null.
+     * @param charset         the charset of the files without byte order mark, UTF-8 is used if null.
+     * @param threads         the number of threads to use, the number of available processors is used if less than 1.
+     * @param manifest        the file to keep the state of the files between runs, every file is extracted if null.
+     * @return the number of new strings extracted.
+     * @throws ExtractionException      when the extraction is interrupted or the xml file or the manifest cannot be written.
+     */
+    public static int extractStrings(List<File> filesToRead, File xmlFile, boolean extractedString, String prefix, String suffix, boolean backupFile, String[] xmlAttributes, Charset charset, int threads, File manifest) throws ExtractionException {
+        return extractStrings(filesToRead, xmlFile, extractedString, prefix, suffix, backupFile, xmlAttributes, charset, threads, manifest, null);
+    }
+
+    /**
+     * Extracts the strings from multiple xml or java files in parallel and link them,
+     * recording the counters and the time of every phase to the given stats.
+     *
+     * @param filesToRead     the valid xml or java files to read and extract strings from.
+     * @param xmlFile         the file to write the extracted strings of all files.
+     * @param extractedString if true the class ExtractedString will be used to get the strings from java files.
+     * @param prefix          the String to use as prefix for generating strings name in xml
+     * @param suffix          the String to use as suffix for generating strings name in xml
+     * @param backupFile      indicates wether to backup the files before writing the extracted strings to file.
+     * @param xmlAttributes   the names of the xml attributes to extract the values of, {@link #getDefaultXmlAttributes()} are used if null.
+     * @param charset         the charset of the files without byte order mark, UTF-8 is used if null.
+     * @param threads         the number of threads to use, the number of available processors is used if less than 1.
+     * @param manifest        the file to keep the state of the files between runs, every file is extracted if null.
+     * @param stats           the stats to record the extraction to, or null.
+     * @return the number of new strings extracted.
+     * @throws ExtractionException      when the extraction is interrupted or the xml file or the manifest cannot be written.
+     * @see #extractStrings(List, File, boolean, String, String, boolean, String[], Charset, int, File)
+     */
+    public static int extractStrings(List<File> filesToRead, File xmlFile, boolean extractedString, String prefix, String suffix, boolean backupFile, String[] xmlAttributes, Charset charset, int threads, File manifest, ExtractionStats stats) throws ExtractionException {
+        ExtractionConfig config = new ExtractionConfig.Builder()
+            .setExtractedString(extractedString)
+            .setPrefix(prefix)
+            .setSuffix(suffix)
+            .setBackupFile(backupFile)
+            .setXmlAttributes(xmlAttributes)
+            .setCharset(charset)
+            .setStats(stats)
+            .build();
+        return extractStrings(filesToRead, xmlFile, config, threads, manifest);
+    }
+
+    /**
+     * Extracts the strings from multiple xml or java files in parallel and link them, with the given config.
+     *
+     * <p>
+     * The config is compiled once and shared by all threads.
+     *
+     * @param filesToRead the valid xml or java files to read and extract strings from.
+     * @param xmlFile     the file to write the extracted strings of all files.
+     * @param config      the options of the extraction.
+     * @param threads     the number of threads to use, the number of available processors is used if less than 1.
+     * @param manifest    the file to keep the state of the files between runs, every file is extracted if null.
+     * @return the number of new strings extracted.
+     * @throws ExtractionException      when the extraction is interrupted or the xml file or the manifest cannot be written.
+     * @see #extractStrings(List, File, boolean, String, String, boolean, String[], Charset, int, File)
+     */
+    public static int extractStrings(List<File> filesToRead, File xmlFile, ExtractionConfig config, int threads, File manifest) throws ExtractionException {
+        ExtractionEngine engine = new ExtractionEngine(new ExtractionSession(config), threads);
+        if(manifest == null) {
+            return engine.extract(filesToRead, xmlFile);
+        }
+        return engine.extract(filesToRead, xmlFile, openCache(manifest));
+    }
+
+    /**
+     * Extracts the strings from the xml and java files of the given directory, then keeps watching
+     * the directory and extracts the strings of the files when they are created or changed.
+     *
+     * <p>
+     * Only the changed files are read, the strings of the other files are kept in the cache
+     * and the xml file is updated in place. This method returns when the current thread is interrupted.
+     *
+     * @param directory       the directory to watch.
+     * @param xmlFile         the file to write the extracted strings of all files.
+     * @param extractedString if true the class ExtractedString will be used to get the strings from java files.
+     * @param prefix          the String to use as prefix for generating strings name in xml
+     * @param suffix          the String to use as suffix for generating strings name in xml
+     * @param backupFile      indicates wether to backup the files before writing the extracted strings to file.
+     * @param xmlAttributes   the names of the xml attributes to extract the values of, {@link #getDefaultXmlAttributes()} are used if null.
+     * @param charset         the charset of the files without byte order mark, UTF-8 is used if null.
+     * @param threads         the number of threads to use, the number of available processors is used if less than 1.
+     * @param manifest        the file to keep the state of the files between runs, the state is kept only in memory if null.
+     * @throws ExtractionException      when the directory cannot be watched or the xml file or the manifest cannot be written.
+     */
+    public static void watchStrings(File directory, File xmlFile, boolean extractedString, String prefix, String suffix, boolean backupFile, String[] xmlAttributes, Charset charset, int threads, File manifest) throws ExtractionException {
+        ExtractionConfig config = new ExtractionConfig.Builder()
+            .setExtractedString(extractedString)
+            .setPrefix(prefix)
+            .setSuffix(suffix)
+            .setBackupFile(backupFile)
+            .setXmlAttributes(xmlAttributes)
+            .setCharset(charset)
+            .build();
+        watchStrings(directory, xmlFile, config, threads, manifest);
+    }
+
+    /**
+     * Extracts the strings from the xml and java files of the given directory with the given config,
+     * then keeps watching the directory and extracts the strings of the files when they are created or changed.
+     *
+     * @param directory the directory to watch.
+     * @param xmlFile   the file to write the extracted strings of all files.
+     * @param config    the options of the extraction.
+     * @param threads   the number of threads to use, the number of available processors is used if less than 1.
+     * @param manifest  the file to keep the state of the files between runs, the state is kept only in memory if null.
+     * @throws ExtractionException      when the directory cannot be watched or the xml file or the manifest cannot be written.
+     * @see #watchStrings(File, File, boolean, String, String, boolean, String[], Charset, int, File)
+     */
+    public static void watchStrings(File directory, File xmlFile, ExtractionConfig config, int threads, File manifest) throws ExtractionException {
+        watchStrings(new SourceWalker(directory), xmlFile, config, threads, manifest);
+    }
+
+    /**
+     * Extracts the strings from the xml and java files found by the given walker with the given config,
+     * then keeps watching its directory and extracts the strings of the files when they are created or changed.
+     *
+     * <p>
+     * The include and exclude globs and the .gitignore rules of the walker apply to the files found
+     * first and to the files which change later.
+     *
+     * @param walker    the directory to watch with the rules of the files to extract.
+     * @param xmlFile   the file to write the extracted strings of all files.
+     * @param config    the options of the extraction.
+     * @param threads   the number of threads to use, the number of available processors is used if less than 1.
+     * @param manifest  the file to keep the state of the files between runs, the state is kept only in memory if null.
+     * @throws ExtractionException      when the directory cannot be watched or the xml file or the manifest cannot be written.
+     */
+    public static void watchStrings(SourceWalker walker, File xmlFile, ExtractionConfig config, int threads, File manifest) throws ExtractionException {
+        ExtractionEngine engine = new ExtractionEngine(new ExtractionSession(config), threads);
+        new ExtractionWatcher(engine, walker, xmlFile, openCache(manifest)).watch();
+    }
+
+    /**
+     * Find the strings of the given java or xml file without extracting them.
+     *
+     * <p>
+     * Nothing is written: the file is not modified, not backed up and no xml file is created.
+     * The strings are found one by one while iterating, so the caller can stop at any time.
+     *
+     * @param file the java or xml file to scan.
+     * @return the iterator of the strings found, with the names given by the default options.
+     * @throws IllegalArgumentException if the file is a directory.
+     * @see #scan(Path, ExtractionConfig)
+     */
+    public static Iterator<ExtractedLiteral> scan(Path file) {
+        return scan(file, new ExtractionConfig.Builder().build());
+    }
+
+    /**
+     * Find the strings of the given java or xml file without extracting them, with the given config.
+     *
+     * <p>
+     * The xml attributes, the charset and the name prefix and suffix of the config are used,
+     * the other options are ignored. An error while reading the file is thrown as {@link ExtractionException}
+     * while iterating.
+     *
+     * @param file   the java or xml file to scan.
+     * @param config the options to find the strings and propose their names with.
+     * @return the iterator of the strings found.
+     * @throws IllegalArgumentException if the file is a directory.
+     */
+    public static Iterator<ExtractedLiteral> scan(Path file, ExtractionConfig config) {
+        if(Files.isDirectory(file)) {
+            throw new IllegalArgumentException("use scanDirectory to scan a directory: " + file);
+        }
+        return new ExtractionSession(config).scan(file);
+    }
+
+    /**
+     * Find the strings of the java and xml files of the given directory and its sub directories without extracting them.
+     *
+     * @param directory the directory to scan.
+     * @return the iterator of the strings found, with the names given by the default options.
+     * @throws IllegalArgumentException if the directory is not a directory.
+     * @see #scanDirectory(Path, ExtractionConfig)
+     */
+    public static Iterator<ExtractedLiteral> scanDirectory(Path directory) {
+        return scanDirectory(directory, new ExtractionConfig.Builder().build());
+    }
+
+    /**
+     * Find the strings of the java and xml files of the given directory and its sub directories without
+     * extracting them, with the given config.
+     *
+     * <p>
+     * Nothing is written. A directory is listed and a file is read only when the iteration reaches it,
+     * the files are iterated in the order of their paths. The same string in many files gets the same proposed name.
+     * The files are the files of a default {@link SourceWalker}, see {@link #scanDirectory(SourceWalker, ExtractionConfig)}
+     * to scan with include and exclude globs.
+     *
+     * @param directory the directory to scan.
+     * @param config    the options to find the strings and propose their names with.
+     * @return the iterator of the strings found.
+     * @throws IllegalArgumentException if the directory is not a directory.
+     */
+    public static Iterator<ExtractedLiteral> scanDirectory(Path directory, ExtractionConfig config) {
+        if(!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("not a directory: " + directory);
+        }
+        return new ExtractionSession(config).scan(directory);
+    }
+
+    /**
+     * Find the strings of the java and xml files found by the given walker without extracting them, with the given config.
+     *
+     * <p>
+     * The files are the files which {@link SourceWalker#walk()} finds, with its include and exclude globs and
+     * .gitignore rules, in the same order, so the proposed names are the names given by extracting them.
+     *
+     * @param walker the walker of the directory to scan.
+     * @param config the options to find the strings and propose their names with.
+     * @return the iterator of the strings found.
+     */
+    public static Iterator<ExtractedLiteral> scanDirectory(SourceWalker walker, ExtractionConfig config) {
+        return new ExtractionSession(config).scan(walker);
+    }
+
+    /** load the cache of the given manifest */
+    private static ExtractionCache openCache(File manifest) throws ExtractionException {
+        try {
+            return new ExtractionCache(manifest);
+        } catch(IOException e) {
+            throw new ExtractionException(e);
+        }
+    }
+}
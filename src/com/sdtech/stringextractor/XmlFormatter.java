@@ -17,14 +17,22 @@
 package com.sdtech.stringextractor;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 /**
  * A class that format the xml code generated with or marged by {@link StringExtractor}.
@@ -39,6 +47,11 @@ import java.util.Collections;
  * will be return to:<br>
  * <code>&lt;resources><br>&nbsp;&nbsp;&nbsp;&nbsp;&lt;string name="str">String&lt;/string><br>&lt;resources></code><br>
  * when formatted.
+ *
+ * <p>
+ * The code is formatted in a single pass while it is read, so the memory used does not
+ * depend on the size of the file. The formatted code is written to a temporary file
+ * which then replaces the file.
  */
 public class XmlFormatter {
 
@@ -48,13 +61,13 @@ public class XmlFormatter {
     /** double qoutes version="1.0" */
     private final String xmlStart1 = "<?xml version=\"1.0\" encoding=\"utf-8\"?>";
 
-    /** single qoutes version='1.0' */
-    private final String xmlStart2 = "<?xml version='1.0' encoding='utf-8'?>";
-
     /** resouces tag which is parent for any android item in xml resources like string, id, string-array, etc. */
     private final String resTagStart = "<resources";
     private final String resTagEnd = "</resources>";
 
+    /** the line break and indent written before every tag */
+    private final String tagIndent = "\r\n    ";
+
     /**
      * Construct the Formatter with the given file.
      *
@@ -73,59 +86,154 @@ public class XmlFormatter {
      * @throws IOException if an exception occur when reading from or writing to file.
      */
     public void formatXml() throws IOException {
-        /** read xml from file */
-        String xmlCode = readCode();
-
-        /** remove resources open tag <resources> or <resources ...> */
-        xmlCode = xmlCode.replaceAll("\\" + resTagStart + ".*?>", "");
-
-        /** remove resources close tag </resources> */
-        xmlCode = xmlCode.replace(resTagEnd, "");
-
-        /** remove xml tag with double qoutes. <?xml version="1.0" encoding="utf-8"?> */
-        xmlCode = xmlCode.replace(xmlStart1, "");
-
-        /** remove xml tag with single qoutes. <?xml version='1.0' encoding='utf-8'?> */
-        xmlCode = xmlCode.replace(xmlStart2, "");
-
-
-        /** replace "><" with ">|<" to split the tags using "|" */
-        xmlCode = xmlCode.replaceAll(">[\\s]{0,}\\<", ">|<");
-
-        /** list to store the tags */
-        ArrayList<String> tagList = new ArrayList<>();
+        File dir = mXmlFile.getAbsoluteFile().getParentFile();
+        File tempFile = createTempFile(dir, mXmlFile.getName());
+        try {
+            Reader in = new BufferedReader(new InputStreamReader(new FileInputStream(mXmlFile), "UTF-8"));
+            try {
+                Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), "UTF-8"));
+                try {
+                    format(in, out);
+                } finally {
+                    out.close();
+                }
+            } finally {
+                in.close();
+            }
+            /** replace the file with the formatted one */
+            replaceFile(tempFile, mXmlFile);
+        } finally {
+            tempFile.delete();
+        }
+    }
 
-        /** split and add the tags to list */
-        Collections.addAll(tagList, xmlCode.split("\\|"));
+    /**
+     * Format the xml code read from the given reader and write it to the given writer.
+     *
+     * <p>
+     * The xml declaration and the resources tags are removed, then every tag which
+     * follows another tag, with only white spaces between them, is written on
+     * a new line with indent inside a new resources tag.
+     *
+     * @param in  the reader to read the xml code from.
+     * @param out the writer to write the formatted code to.
+     * @throws IOException if an exception occur when reading or writing.
+     */
+    public void format(Reader in, Writer out) throws IOException {
+        PushbackReader reader = new PushbackReader(in, resTagEnd.length());
+        /** the white spaces which are not written yet */
+        StringBuilder spaces = new StringBuilder();
+        /** indicates whether the last thing read is a tag or the start of code */
+        boolean afterTag = true;
+
+        out.write(xmlStart1);
+        out.write("\r\n");
+        out.write(resTagStart + ">");
+        int c;
+        while((c = reader.read()) != -1) {
+            if(Character.isWhitespace(c)) {
+                spaces.append((char) c);
+                continue;
+            }
+            if(c == '<' && isRemovedTag(reader)) {
+                /** skip the declaration or the resources tag with its spaces */
+                skipTag(reader);
+                spaces.setLength(0);
+                afterTag = true;
+                continue;
+            }
+            if(c == '<' && afterTag) {
+                /** new line + indent */
+                out.write(tagIndent);
+            } else {
+                out.append(spaces);
+            }
+            spaces.setLength(0);
+            out.write(c);
+            afterTag = c == '>';
+        }
+        out.write("\r\n");
+        out.write(resTagEnd);
+        out.flush();
+    }
 
-        StringBuilder sb = new StringBuilder();
+    /**
+     * Format the given xml code.
+     *
+     * @param xmlCode the xml code to format.
+     * @return the formatted xml code.
+     */
+    String format(String xmlCode) {
+        StringWriter out = new StringWriter(xmlCode.length() + xmlCode.length() / 8);
+        try {
+            format(new StringReader(xmlCode), out);
+        } catch(IOException e) {
+            /** never thrown by string reader and writer */
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
 
-        sb.append(xmlStart1);
-        sb.append("\r\n");
-        sb.append(resTagStart + ">");
-        for(String tag : tagList) {
-            /** new line + indent */
-            sb.append("\r\n    ");
-            sb.append(tag);
+    /** check if the tag after '<' is xml declaration or resources tag, without consuming it */
+    private boolean isRemovedTag(PushbackReader reader) throws IOException {
+        char[] next = new char[resTagEnd.length() - 1];
+        int read = 0;
+        int n;
+        while(read < next.length && (n = reader.read(next, read, next.length - read)) != -1) {
+            read += n;
+        }
+        if(read > 0) {
+            reader.unread(next, 0, read);
+        }
+        String tag = "<" + new String(next, 0, read);
+        if(tag.startsWith("<?xml") || tag.startsWith(resTagEnd)) {
+            return true;
         }
+        /** <resources> or <resources ...> */
+        return tag.length() > resTagStart.length() && tag.startsWith(resTagStart)
+            && (tag.charAt(resTagStart.length()) == '>' || Character.isWhitespace(tag.charAt(resTagStart.length())));
+    }
 
-        sb.append(resTagEnd);
+    /** skip the rest of the tag, up to and including '>' */
+    private static void skipTag(Reader reader) throws IOException {
+        int c;
+        while((c = reader.read()) != -1 && c != '>') {}
+    }
 
-        /** write the formatted xml to file */
-        byte[] xmlToWrite = sb.toString().getBytes("UTF-8");
-        FileOutputStream fout = new FileOutputStream(mXmlFile);
-        fout.write(xmlToWrite);
-        fout.close();
+    /**
+     * Create a new empty file in the given directory to write before replacing a file.
+     *
+     * <p>
+     * {@link File#createTempFile} is not used because its {@link java.security.SecureRandom}
+     * takes longer to initialize than a whole extraction of a small file.
+     *
+     * @param dir  the directory of the file.
+     * @param name the name of the file to replace.
+     * @return the created file.
+     * @throws IOException if the file cannot be created.
+     */
+    public static File createTempFile(File dir, String name) throws IOException {
+        long suffix = System.nanoTime();
+        while(true) {
+            File file = new File(dir, name + "." + Long.toHexString(suffix++) + ".tmp");
+            if(file.createNewFile()) {
+                return file;
+            }
+        }
     }
 
-    /** read text from xml file. */
-    private String readCode() throws IOException {
-        StringBuilder lines = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(mXmlFile)));
-        String line;
-        while((line = reader.readLine()) != null) {
-            lines.append(line).append("\r\n");
+    /**
+     * Replace the target file with the source file, atomically if supported.
+     *
+     * @param source the file to move.
+     * @param target the file to replace.
+     * @throws IOException if the file cannot be moved.
+     */
+    public static void replaceFile(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
         }
-        return lines.toString();
     }
 }
@@ -16,13 +16,18 @@
 
 package com.sdtech.stringextractor;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * The class for writting our generated xml into file.
@@ -34,12 +39,34 @@ import java.io.InputStreamReader;
  * That means the file passed to this class constructor must be empty file,
  * not exists before or valid strings xml file. otherwise the file may be improperly merged
  * or currupted if not plain text file.
+ * <p>
+ * In batch mode the entries are kept in memory and nothing is written until {@link #save()},
+ * which merges and formats them with the original code in memory and commits the file once:
+ * the code is written to a temporary file which then replaces the file atomically.
+ * Without batch mode every entry is flushed to file as soon as it is written.
+ * <p>
+ * The file is always written with UTF-8 encoding.
  */
 public class XmlWriter {
 
 
-    /** the writer we use to the xml code to file */
-    private FileWriter mWriter;
+    /** the writer we use to the xml code to file, null in batch mode */
+    private Writer mWriter;
+
+    /** the entries written in batch mode, null otherwise */
+    private StringBuilder mBuffer;
+
+    /** indicates whether to force the committed file to the storage device */
+    private boolean mDurable = false;
+
+    /** indicates whether an existing file is merged whatever its size, and replaced if it is not string xml code */
+    private boolean mMergeAlways = false;
+
+    /** the stats to record the time of writing, merging and formatting to, or null */
+    private ExtractionStats mStats;
+
+    /** the names of the strings to remove when merging */
+    private final Set<String> mRemovedNames = new HashSet<String>();
 
     /** the file to write the xml code into */
     private File mXmlFile;
@@ -67,6 +94,17 @@ public class XmlWriter {
      * @throws IOException if the given file cannot be written.
      */
     public XmlWriter(File file) throws IOException {
+        this(file, /*batch=*/false);
+    }
+
+    /**
+     * Create a new XmlFileWriter with the given file to write the xml code to.
+     *
+     * @param file  The {@link File} to write the xml code.
+     * @param batch if true the entries are kept in memory and the file is written once on {@link #save()}.
+     * @throws IOException if the given file cannot be written.
+     */
+    public XmlWriter(File file, boolean batch) throws IOException {
         /** store the given file */
         mXmlFile = file;
 
@@ -76,29 +114,125 @@ public class XmlWriter {
         /** check if file contains string xml code */
         hasXmlCode = isXmlFile(file);
 
-        /** open the file as append mode */
-        mWriter = new FileWriter(file,/*append=*/true);
+        if(batch) {
+            /** nothing is written until save */
+            mBuffer = new StringBuilder();
+        } else {
+            /** open the file as append mode */
+            mWriter = new OutputStreamWriter(new FileOutputStream(file,/*append=*/true), "UTF-8");
+        }
+    }
+
+    /**
+     * Force the file to the storage device before it replaces the original file in batch mode,
+     * so the file is not lost or currupted if the system crash right after {@link #save()}.
+     * This makes the save slower and is disabled by default.
+     *
+     * @param durable true to force the file to the storage device.
+     */
+    public void setDurable(boolean durable) {
+        mDurable = durable;
+    }
+
+    /** @return Returns true if the file is forced to the storage device on save in batch mode. */
+    public boolean isDurable() {
+        return mDurable;
+    }
+
+    /**
+     * Merge the entries with an existing string xml file whatever its size, and replace a file
+     * which does not contain string xml code instead of appending to it.
+     * <p>
+     * This is needed when all the strings are written again on every run, otherwise a file of
+     * 4MB or more would get every string appended again. It is disabled by default.
+     *
+     * @param mergeAlways true to always merge or replace the existing file.
+     * @throws IOException if the existing file cannot be read.
+     */
+    public void setMergeAlways(boolean mergeAlways) throws IOException {
+        mMergeAlways = mergeAlways;
+        hasXmlCode = mergeAlways ? fileExists && hasStringXmlCode(mXmlFile) : isXmlFile(mXmlFile);
+    }
+
+    /** @return Returns true if an existing file is always merged or replaced. */
+    public boolean isMergeAlways() {
+        return mMergeAlways;
+    }
+
+    /**
+     * Set the stats to record the time of writing, merging and formatting the file to.
+     *
+     * @param stats the stats to record to, or null to record nothing.
+     */
+    public void setStats(ExtractionStats stats) {
+        mStats = stats;
     }
 
     /**
      * Generate and append the string tag generated from the
      * given name and value to file and save the file to avoid 
      * interruption before calling to {@link #save()} or {@link #close()} method.
+     * <p>
+     * In batch mode the string tag is only appended to memory.
      *
      * @param name The name of the string to append to the file.
      * @param value The value of the string.
      * @throws IOException if the file is cannot be written to
      */
     public void write(String name, String value) throws IOException {
+        mRemovedNames.remove(name);
+        if(mBuffer != null) {
+            mBuffer.append("\r\n<string name=\"").append(name).append("\">").append(value).append("</string>");
+            return;
+        }
 
+        long start = System.nanoTime();
         /** append the new line */
         mWriter.append("\r\n");
 
         /** append the code */
-        mWriter.append(String.format("<string name=\"%s\">%s</string>", name, value));
+        mWriter.append("<string name=\"").append(name).append("\">").append(value).append("</string>");
 
         /** save the changes */
         mWriter.flush();
+        record(ExtractionStats.Phase.XML_WRITE, start);
+    }
+
+    /**
+     * Remove the string with the given name from the file when it is merged on {@link #save()} or {@link #merge()}.
+     * <p>
+     * Writing a string with the same name later with {@link #write(String, String)} cancel the removal.
+     *
+     * @param name The name of the string to remove.
+     */
+    public void remove(String name) {
+        mRemovedNames.add(name);
+    }
+
+    /**
+     * Read the names of the strings in the existing file, so the new strings can be named after them
+     * instead of replacing them when the file is merged.
+     *
+     * @return The names of the strings in the file, empty if the file does not exist.
+     * @throws IOException if the file cannot be read.
+     */
+    public Set<String> getNames() throws IOException {
+        Set<String> names = new HashSet<String>();
+        if(!fileExists) {
+            return names;
+        }
+        String xmlCode = readText(mXmlFile);
+        int start = xmlCode.indexOf("<string");
+        while(start >= 0) {
+            int tagEnd = xmlCode.indexOf('>', start);
+            if(tagEnd < 0)break;
+            String name = stringName(xmlCode.substring(start, tagEnd + 1));
+            if(name != null) {
+                names.add(name);
+            }
+            start = xmlCode.indexOf("<string", tagEnd);
+        }
+        return names;
     }
 
     /**
@@ -107,6 +241,10 @@ public class XmlWriter {
      * @throws IOException if an Error occur while closing or saving the file.
      */
     public void save() throws IOException {
+        if(mBuffer != null) {
+            commitBatch();
+            return;
+        }
         /** save file and close the writer */
         close();
 
@@ -128,41 +266,210 @@ public class XmlWriter {
             /** file is not exist or not valid xml file */
             return;
         }
-        /** read the text from the file which merged. */
-        StringBuilder sb = new StringBuilder();
-        String line;
-        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(mXmlFile)));
-        while((line = reader.readLine()) != null) {
-            /** dont add the same line */
-            if(sb.toString().contains(line))continue;
+        /** merge the lines of the file and save */
+        long start = System.nanoTime();
+        String xmlCode = mergeEntries(readText(mXmlFile));
+        start = record(ExtractionStats.Phase.MERGE, start);
+        commit(xmlCode);
+        start = record(ExtractionStats.Phase.XML_WRITE, start);
 
-            sb.append(sb.toString().isEmpty() ? "" : "\r\n").append(line);
+        /** we need to format the code */
+        formatXml();
+        record(ExtractionStats.Phase.FORMAT, start);
+    }
+
+    /** merge and format the original code with the entries written in batch mode, then write the file once. */
+    private void commitBatch() throws IOException {
+        long start = System.nanoTime();
+        /** a file which is not string xml code is kept and appended to, unless it is always merged */
+        String xmlCode = fileExists && (hasXmlCode || !mMergeAlways) ? readText(mXmlFile) : "";
+        xmlCode += mBuffer;
+        mBuffer.setLength(0);
+        if(!fileExists || hasXmlCode || mMergeAlways) {
+            /** it is new file or valid string xml file we need to merge and format them. */
+            hasXmlCode = true;
+            xmlCode = mergeEntries(xmlCode);
+            start = record(ExtractionStats.Phase.MERGE, start);
+            xmlCode = new XmlFormatter(mXmlFile).format(xmlCode);
+            start = record(ExtractionStats.Phase.FORMAT, start);
         }
-        reader.close();
+        commit(xmlCode);
+        record(ExtractionStats.Phase.XML_WRITE, start);
+        fileExists = true;
+    }
 
-        String xmlRead = sb.toString();
+    /** add the time since the given start to the phase if the stats are set, and return the time now */
+    private long record(ExtractionStats.Phase phase, long start) {
+        long now = System.nanoTime();
+        if(mStats != null) {
+            mStats.addNanos(phase, now - start);
+        }
+        return now;
+    }
 
-        /** remove resources open tag <resources> or <resources ...> */
-        xmlRead = xmlRead.replaceAll("\\" + resTagStart + ".*?>", "");
+    /**
+     * merge the elements of the given code so every string name is kept once.
+     * <p>
+     * The code is parsed once into its top level elements. The &lt;string&gt; elements are
+     * indexed by their name, when a name is found again the later element replaces the earlier one
+     * at its position, because it is the one linked by the last extraction.
+     * Any other element or comment is kept once. The xml declaration and the resources tags are removed.
+     */
+    private String mergeEntries(String xmlCode) {
+        Map<String, String> entries = new LinkedHashMap<String, String>();
+        int length = xmlCode.length();
+        int i = 0;
+        while(i < length) {
+            int start = xmlCode.indexOf('<', i);
+            if(start < 0) {
+                start = length;
+            }
+            /** text outside the elements */
+            String text = xmlCode.substring(i, start).trim();
+            if(!text.isEmpty()) {
+                entries.put("\0" + text, text);
+            }
+            if(start >= length) {
+                break;
+            }
+            int end = elementEnd(xmlCode, start);
+            String element = xmlCode.substring(start, end);
+            i = end;
+            if(element.startsWith("<?") || element.startsWith(resTagStart) || element.startsWith(resTagEnd)) {
+                continue;
+            }
+            String name = element.startsWith("<string") ? stringName(element) : null;
+            if(name != null) {
+                if(mRemovedNames.contains(name))continue;
+                /** put keeps the position of an existing name */
+                entries.put(name, element);
+            } else {
+                entries.put("\0" + element, element);
+            }
+        }
+        StringBuilder sb = new StringBuilder(length);
+        for(String element : entries.values()) {
+            sb.append(sb.length() == 0 ? "" : "\r\n").append(element);
+        }
+        return sb.toString();
+    }
 
-        /** remove resources close tag </resources> */
-        xmlRead = xmlRead.replace(resTagEnd, "");
+    /** return the end of the element or comment which starts at the given index */
+    private static int elementEnd(String xmlCode, int start) {
+        if(xmlCode.startsWith("<!--", start)) {
+            int end = xmlCode.indexOf("-->", start + 4);
+            return end < 0 ? xmlCode.length() : end + 3;
+        }
+        int tagEnd = xmlCode.indexOf('>', start);
+        if(tagEnd < 0) {
+            return xmlCode.length();
+        }
+        char first = xmlCode.charAt(start + 1);
+        if(first == '?' || first == '!' || first == '/' || xmlCode.charAt(tagEnd - 1) == '/') {
+            /** declaration, end tag or empty element */
+            return tagEnd + 1;
+        }
+        int nameEnd = start + 1;
+        while(nameEnd < tagEnd && !Character.isWhitespace(xmlCode.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        String tag = xmlCode.substring(start + 1, nameEnd);
+        if(tag.equals("resources")) {
+            return tagEnd + 1;
+        }
+        /** find the matching end tag, counting the nested elements with the same tag */
+        String open = "<" + tag;
+        String close = "</" + tag + ">";
+        int depth = 1;
+        int i = tagEnd + 1;
+        while(depth > 0) {
+            int nextClose = xmlCode.indexOf(close, i);
+            if(nextClose < 0) {
+                return xmlCode.length();
+            }
+            int nextOpen = indexOfTag(xmlCode, open, i, nextClose);
+            if(nextOpen >= 0) {
+                depth++;
+                i = nextOpen + open.length();
+            } else {
+                depth--;
+                i = nextClose + close.length();
+            }
+        }
+        return i;
+    }
 
-        /** remove xml tag with double qoutes. i.e <?xml version="1.0" encoding="utf-8"?> */
-        xmlRead = xmlRead.replace(xmlStart1, "");
+    /** return the index of the start tag between from and to, or -1 if not found */
+    private static int indexOfTag(String xmlCode, String open, int from, int to) {
+        for(int i = from; i < to; i++) {
+            if(xmlCode.charAt(i) == '<' && xmlCode.startsWith(open, i) && isTagEnd(xmlCode, i + open.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
-        /** remove xml tag with single qoutes. i.e <?xml version='1.0' encoding='utf-8'?> */
-        xmlRead = xmlRead.replace(xmlStart2, "");
+    /** check if the char at index ends a tag name */
+    private static boolean isTagEnd(String xmlCode, int index) {
+        if(index >= xmlCode.length()) {
+            return false;
+        }
+        char c = xmlCode.charAt(index);
+        return c == '>' || c == '/' || Character.isWhitespace(c);
+    }
 
+    /** return the name attribute of the string element or null if not found */
+    private static String stringName(String element) {
+        if(!isTagEnd(element, "<string".length())) {
+            return null;
+        }
+        int tagEnd = element.indexOf('>');
+        int index = element.indexOf("name=");
+        if(index < 0 || index > tagEnd || index + 5 >= element.length()) {
+            return null;
+        }
+        char quote = element.charAt(index + 5);
+        int end = element.indexOf(quote, index + 6);
+        if((quote != '"' && quote != '\'') || end < 0) {
+            return null;
+        }
+        return element.substring(index + 6, end);
+    }
 
-        /** our code is now merged then save */
-        byte[] xmlToWrite = sb.toString().getBytes("UTF-8");
-        FileOutputStream fout = new FileOutputStream(mXmlFile);
-        fout.write(xmlToWrite);
-        fout.close();
+    /** read the whole text of the given file. */
+    private static String readText(File file) throws IOException {
+        StringBuilder sb = new StringBuilder((int) file.length());
+        InputStreamReader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+        char[] buffer = new char[8192];
+        int read;
+        while((read = reader.read(buffer)) != -1) {
+            sb.append(buffer, 0, read);
+        }
+        reader.close();
+        return sb.toString();
+    }
 
-        /** we need to format the code */
-        formatXml();
+    /**
+     * write the given code to a temporary file in the same directory
+     * and then replace our file with it, so the file is never half written.
+     */
+    private void commit(String xmlCode) throws IOException {
+        File dir = mXmlFile.getAbsoluteFile().getParentFile();
+        File tempFile = XmlFormatter.createTempFile(dir, mXmlFile.getName());
+        try {
+            FileOutputStream fout = new FileOutputStream(tempFile);
+            try {
+                fout.write(xmlCode.getBytes("UTF-8"));
+                if(mDurable) {
+                    fout.getFD().sync();
+                }
+            } finally {
+                fout.close();
+            }
+            XmlFormatter.replaceFile(tempFile, mXmlFile);
+        } finally {
+            tempFile.delete();
+        }
     }
 
     /**
@@ -211,6 +518,14 @@ public class XmlWriter {
             /** the file is bigger than 4MB. not text file? */
             return false;
         }
+        return hasStringXmlCode(xmlFile);
+    }
+
+    /** check if the beginning of the given existing file looks like string xml code, whatever its size */
+    private boolean hasStringXmlCode(File xmlFile) throws IOException {
+        if(xmlFile.isDirectory()) {
+            return false;
+        }
 
         /** read the first 2048 Characters from the file. */
         FileInputStream fis = new FileInputStream(xmlFile);
@@ -235,10 +550,16 @@ public class XmlWriter {
 
     /**
      * Flush and close the writer.
+     * <p>
+     * In batch mode the entries which are not saved are discarded.
      *
      * @throws IOException when an error occur while closing the writer.
      */
     public void close() throws IOException {
+        if(mBuffer != null) {
+            mBuffer.setLength(0);
+            return;
+        }
         /** flush the unsaved changes to file. */
         mWriter.flush();
         /** close the writer. */
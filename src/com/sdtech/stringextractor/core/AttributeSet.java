@@ -0,0 +1,119 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+/**
+ * A precompiled set of xml attribute names.
+ *
+ * <p>
+ * The names are stored in a small open addressing hash table so an attribute
+ * name can be looked up directly from the scanned text, without creating
+ * a String for it. Names are compared ignoring the case of ASCII letters.
+ */
+public final class AttributeSet {
+
+    /** the lower case names stored by slot, null for empty slot */
+    private final String[] mSlots;
+
+    /** mask to wrap the slot index, the table length is a power of two */
+    private final int mMask;
+
+    /** the names given to this set */
+    private final String[] mNames;
+
+    /**
+     * Compile the given attribute names into a set.
+     *
+     * @param names The attribute names, e.g android:text
+     */
+    public AttributeSet(String... names) {
+        mNames = names.clone();
+        int capacity = 8;
+        while(capacity < names.length * 2) {
+            capacity <<= 1;
+        }
+        mSlots = new String[capacity];
+        mMask = capacity - 1;
+        for(String name : names) {
+            String key = toLowerCase(name);
+            int slot = hash(key, 0, key.length()) & mMask;
+            while(mSlots[slot] != null && !mSlots[slot].equals(key)) {
+                slot = (slot + 1) & mMask;
+            }
+            mSlots[slot] = key;
+        }
+    }
+
+    /**
+     * Check if the name at the given range of text is in this set.
+     *
+     * @param text  The text containing the name.
+     * @param start The start offset of the name.
+     * @param end   The end offset (exclusive) of the name.
+     * @return true if the name is in this set.
+     */
+    public boolean contains(CharSequence text, int start, int end) {
+        int slot = hash(text, start, end) & mMask;
+        String key;
+        while((key = mSlots[slot]) != null) {
+            if(regionMatches(key, text, start, end)) {
+                return true;
+            }
+            slot = (slot + 1) & mMask;
+        }
+        return false;
+    }
+
+    /** @return a copy of the names given to this set. */
+    public String[] getNames() {
+        return mNames.clone();
+    }
+
+    /** compare the lower case key with the text range ignoring case */
+    private static boolean regionMatches(String key, CharSequence text, int start, int end) {
+        if(key.length() != end - start) {
+            return false;
+        }
+        for(int i = 0; i < key.length(); i++) {
+            if(key.charAt(i) != toLowerCase(text.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** hash of the lower case text range */
+    private static int hash(CharSequence text, int start, int end) {
+        int h = 0;
+        for(int i = start; i < end; i++) {
+            h = 31 * h + toLowerCase(text.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static char toLowerCase(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static String toLowerCase(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for(int i = 0; i < s.length(); i++) {
+            sb.append(toLowerCase(s.charAt(i)));
+        }
+        return sb.toString();
+    }
+}
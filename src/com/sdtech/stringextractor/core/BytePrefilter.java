@@ -0,0 +1,184 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.sdtech.stringextractor.core;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+
+import java.util.Arrays;
+
+/**
+ * A cheap search over the raw bytes of a file for anything which may be a string to extract,
+ * done before the file is decoded and scanned.
+ *
+ * <p>
+ * The java code is searched for a double qoute. The xml code is searched for any of the attribute
+ * names, ignoring the case of ASCII letters, with a multi pattern Horspool search: the window is
+ * as long as the shortest name and is shifted by the last byte of the window, then the names are
+ * compared only where the window may end a match.
+ *
+ * <p>
+ * A file which is rejected is certain to have no string, so the search is only done when the qoute
+ * and the names are encoded to the same ASCII bytes in the charset of the file. Otherwise,
+ * e.g for UTF-16, every file is accepted.
+ */
+final class BytePrefilter {
+
+    /** the double qoute which starts every java string */
+    private static final byte QUOTE = '"';
+
+    /** indicates whether a double qoute is the single byte 0x22 in the charset */
+    private final boolean mJavaEnabled;
+
+    /** the lower case ASCII bytes of the attribute names, null if the xml files are not searched */
+    private final byte[][] mNames;
+
+    /** the length of the shortest name, the length of the search window */
+    private final int mWindow;
+
+    /** the shift of the window by its last byte */
+    private final int[] mShift = new int[256];
+
+    /**
+     * Create the prefilter.
+     *
+     * @param charset    the charset of the files without byte order mark.
+     * @param attributes the attribute names to search the xml files for.
+     */
+    BytePrefilter(Charset charset, String[] attributes) {
+        mJavaEnabled = isAscii(charset, "\"");
+        byte[][] names = new byte[attributes.length][];
+        int window = Integer.MAX_VALUE;
+        for(int i = 0; i < attributes.length && names != null; i++) {
+            if(attributes[i].isEmpty() || !isAscii(charset, attributes[i])) {
+                names = null;
+                break;
+            }
+            names[i] = new byte[attributes[i].length()];
+            for(int j = 0; j < names[i].length; j++) {
+                names[i][j] = toLowerCase((byte) attributes[i].charAt(j));
+            }
+            window = Math.min(window, names[i].length);
+        }
+        if(names == null || names.length == 0) {
+            mNames = null;
+            mWindow = 0;
+            return;
+        }
+        mNames = names;
+        mWindow = window;
+        Arrays.fill(mShift, window);
+        for(byte[] name : names) {
+            for(int j = 0; j < window - 1; j++) {
+                mShift[name[j] & 0xFF] = Math.min(mShift[name[j] & 0xFF], window - 1 - j);
+            }
+        }
+    }
+
+    /**
+     * Search the remaining bytes of the given buffer, without moving its position.
+     *
+     * @param bytes    the content of the file, after the byte order mark if any.
+     * @param javaCode true for java code, false for xml code.
+     * @return false if the file has certainly no string to extract.
+     */
+    boolean accept(ByteBuffer bytes, boolean javaCode) {
+        if(javaCode) {
+            return !mJavaEnabled || indexOf(bytes, QUOTE) >= 0;
+        }
+        return mNames == null || containsName(bytes);
+    }
+
+    /** @return true if the given charset decodes the text from its ASCII bytes only */
+    private static boolean isAscii(Charset charset, String text) {
+        for(int i = 0; i < text.length(); i++) {
+            if(text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        try {
+            ByteBuffer encoded = charset.newEncoder().encode(CharBuffer.wrap(text));
+            if(encoded.remaining() != text.length()) {
+                return false;
+            }
+            for(int i = 0; i < text.length(); i++) {
+                if(encoded.get(i) != (byte) text.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch(CharacterCodingException e) {
+            return false;
+        } catch(UnsupportedOperationException e) {
+            /** the charset can only decode */
+            return false;
+        }
+    }
+
+    private static int indexOf(ByteBuffer bytes, byte b) {
+        if(bytes.hasArray()) {
+            byte[] array = bytes.array();
+            int end = bytes.arrayOffset() + bytes.limit();
+            for(int i = bytes.arrayOffset() + bytes.position(); i < end; i++) {
+                if(array[i] == b) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        for(int i = bytes.position(); i < bytes.limit(); i++) {
+            if(bytes.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean containsName(ByteBuffer bytes) {
+        final int last = bytes.limit() - mWindow;
+        int i = bytes.position();
+        while(i <= last) {
+            byte end = toLowerCase(bytes.get(i + mWindow - 1));
+            for(byte[] name : mNames) {
+                if(name[mWindow - 1] == end && matches(bytes, i, name)) {
+                    return true;
+                }
+            }
+            i += mShift[end & 0xFF];
+        }
+        return false;
+    }
+
+    private static boolean matches(ByteBuffer bytes, int start, byte[] name) {
+        if(start + name.length > bytes.limit()) {
+            return false;
+        }
+        for(int j = 0; j < name.length; j++) {
+            if(toLowerCase(bytes.get(start + j)) != name[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte toLowerCase(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+}
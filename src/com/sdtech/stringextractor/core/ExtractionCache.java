@@ -0,0 +1,315 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+import com.sdtech.stringextractor.XmlFormatter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The manifest of an incremental extraction.
+ *
+ * <p>
+ * For every extracted file the manifest keeps its size, last modified time, content hash
+ * and the strings extracted from it, so a file which did not change since the last run
+ * does not need to be read again and its strings are reused.
+ *
+ * <p>
+ * The manifest is a UTF-8 line oriented text file:
+ * <pre>
+ * # StringExtractor manifest 1
+ * F size modified hash path
+ * S number name value
+ * </pre>
+ * every F line is followed by the S lines of the strings of that file.
+ * Line breaks and back slashes in values are escaped with a back slash.
+ */
+public final class ExtractionCache {
+
+    private static final String HEADER = "# StringExtractor manifest 1";
+
+    /** a string extracted from a file */
+    static final class Entry {
+        final int number;
+        final String name;
+        final String value;
+
+        Entry(int number, String name, String value) {
+            this.number = number;
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    /** the state of a file and its strings when it was last extracted */
+    static final class Record {
+        final long size;
+        final long modified;
+        final String hash;
+        final List<Entry> entries;
+
+        Record(long size, long modified, String hash, List<Entry> entries) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        /** check if the file has the same size and last modified time */
+        boolean matches(File file) {
+            return size == file.length() && modified == file.lastModified();
+        }
+    }
+
+    /** the file to load and save the manifest */
+    private final File mManifest;
+
+    /** the records by absolute path */
+    private final Map<String, Record> mRecords = new HashMap<String, Record>();
+
+    /** the names of the strings of the records which was removed since loaded */
+    private final Set<String> mRemovedNames = new HashSet<String>();
+
+    /** the biggest number of the strings in the manifest */
+    private int mMaxNumber;
+
+    /**
+     * Create the cache and load the manifest if it exists.
+     *
+     * <p> A manifest which is not valid is ignored, as if it does not exist.
+     *
+     * @param manifest The file to load and save the manifest, the cache is kept only in memory if null.
+     * @throws IOException if the manifest exists but cannot be read.
+     */
+    public ExtractionCache(File manifest) throws IOException {
+        mManifest = manifest;
+        if(manifest != null && manifest.isFile()) {
+            load();
+        }
+    }
+
+    /** @return the file to load and save the manifest, null if the cache is kept only in memory. */
+    public File getManifest() {
+        return mManifest;
+    }
+
+    /** @return the recorded files which still exist, sorted by path */
+    public synchronized List<File> getFiles() {
+        List<File> files = new ArrayList<File>(mRecords.size());
+        for(String path : mRecords.keySet()) {
+            File file = new File(path);
+            if(file.isFile()) {
+                files.add(file);
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /** @return the record of the given file or null if not extracted before */
+    synchronized Record get(File file) {
+        return mRecords.get(file.getAbsolutePath());
+    }
+
+    /** set the record of the given file */
+    synchronized void put(File file, Record record) {
+        mRecords.put(file.getAbsolutePath(), record);
+        for(Entry entry : record.entries) {
+            mMaxNumber = Math.max(mMaxNumber, entry.number);
+            mRemovedNames.remove(entry.name);
+        }
+    }
+
+    /**
+     * Remove the records of the files which are not in the given files, i.e deleted files.
+     *
+     * @return true if any record was removed.
+     */
+    synchronized boolean retain(Collection<File> files) {
+        Set<String> paths = new HashSet<String>(files.size() * 2);
+        for(File file : files) {
+            paths.add(file.getAbsolutePath());
+        }
+        boolean removed = false;
+        Iterator<Map.Entry<String, Record>> it = mRecords.entrySet().iterator();
+        while(it.hasNext()) {
+            Map.Entry<String, Record> record = it.next();
+            if(!paths.contains(record.getKey())) {
+                for(Entry entry : record.getValue().entries) {
+                    mRemovedNames.add(entry.name);
+                }
+                it.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    /** @return the biggest number of the strings, 0 if there is no string */
+    synchronized int getMaxNumber() {
+        return mMaxNumber;
+    }
+
+    /** @return the strings of all files, ordered by number and kept once per name */
+    synchronized List<Entry> getEntries() {
+        Map<String, Entry> byName = new HashMap<String, Entry>();
+        for(Record record : mRecords.values()) {
+            for(Entry entry : record.entries) {
+                byName.put(entry.name, entry);
+            }
+        }
+        List<Entry> entries = new ArrayList<Entry>(byName.values());
+        Collections.sort(entries, new Comparator<Entry>() {
+
+            @Override
+            public int compare(Entry a, Entry b) {
+                return a.number < b.number ? -1 : (a.number == b.number ? a.name.compareTo(b.name) : 1);
+            }
+        });
+        return entries;
+    }
+
+    /** @return the names of the strings of the removed records which no other record has */
+    synchronized Set<String> getRemovedNames() {
+        return new HashSet<String>(mRemovedNames);
+    }
+
+    /**
+     * Write the manifest to its file, the file is replaced atomically. Nothing is written if there is no manifest file.
+     *
+     * @throws IOException if the manifest cannot be written.
+     */
+    public synchronized void save() throws IOException {
+        if(mManifest == null) {
+            mRemovedNames.clear();
+            return;
+        }
+        File dir = mManifest.getAbsoluteFile().getParentFile();
+        File tempFile = XmlFormatter.createTempFile(dir, "." + mManifest.getName());
+        try {
+            Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), "UTF-8"));
+            try {
+                out.write(HEADER);
+                out.write('\n');
+                for(Map.Entry<String, Record> item : mRecords.entrySet()) {
+                    Record record = item.getValue();
+                    out.write("F " + record.size + " " + record.modified + " " + record.hash + " " + escape(item.getKey()) + "\n");
+                    for(Entry entry : record.entries) {
+                        out.write("S " + entry.number + " " + entry.name + " " + escape(entry.value) + "\n");
+                    }
+                }
+            } finally {
+                out.close();
+            }
+            XmlFormatter.replaceFile(tempFile, mManifest);
+        } finally {
+            tempFile.delete();
+        }
+        mRemovedNames.clear();
+    }
+
+    /** read the records from the manifest file */
+    private void load() throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(mManifest), "UTF-8"));
+        try {
+            if(!HEADER.equals(reader.readLine())) {
+                return;
+            }
+            String path = null;
+            long size = 0;
+            long modified = 0;
+            String hash = null;
+            List<Entry> entries = null;
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(line.startsWith("F ")) {
+                    if(path != null) {
+                        put(new File(path), new Record(size, modified, hash, entries));
+                    }
+                    String[] parts = line.split(" ", 5);
+                    size = Long.parseLong(parts[1]);
+                    modified = Long.parseLong(parts[2]);
+                    hash = parts[3];
+                    path = unescape(parts[4]);
+                    entries = new ArrayList<Entry>();
+                } else if(line.startsWith("S ") && entries != null) {
+                    String[] parts = line.split(" ", 4);
+                    entries.add(new Entry(Integer.parseInt(parts[1]), parts[2], unescape(parts[3])));
+                }
+            }
+            if(path != null) {
+                put(new File(path), new Record(size, modified, hash, entries));
+            }
+        } catch(RuntimeException e) {
+            /** not a valid manifest, start from empty */
+            mRecords.clear();
+            mMaxNumber = 0;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static String escape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for(int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if(c == '\\') {
+                sb.append("\\\\");
+            } else if(c == '\n') {
+                sb.append("\\n");
+            } else if(c == '\r') {
+                sb.append("\\r");
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for(int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if(c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                sb.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
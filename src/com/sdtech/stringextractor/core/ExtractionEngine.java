@@ -0,0 +1,435 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+import com.sdtech.stringextractor.ExtractionConfig;
+import com.sdtech.stringextractor.ExtractionException;
+import com.sdtech.stringextractor.ExtractionStats;
+import com.sdtech.stringextractor.XmlWriter;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Extracts the strings of multiple files in parallel.
+ *
+ * <p>
+ * The extraction is done in three phases:
+ * <ol>
+ *     <li>all files are read and scanned in parallel, and their literals are registered
+ *     in a {@link LiteralRegistry} shared by all files.</li>
+ *     <li>the literals are numbered in the order of the given files after the strings already
+ *     in the xml file, a literal which was found in a previous file gets the number of its first occurrence.</li>
+ *     <li>the strings of all files are written to the xml file once, in the same order,
+ *     then the strings of every file are linked in parallel. A file is never linked
+ *     to a string which was not saved.</li>
+ * </ol>
+ * Because the numbers are assigned after scanning in the order of the files,
+ * the result is the same whatever the number of threads is.
+ * <p>
+ * The strings are kept in memory from scanning until they are written,
+ * so no temporary xml file is created per file.
+ */
+public final class ExtractionEngine {
+
+    /** the session which holds the options and do the work of single file */
+    private final ExtractionSession mSession;
+
+    /** the number of threads to use */
+    private final int mThreads;
+
+    /** the pool shared by the extractions, or null to create a pool for every extraction */
+    private final ExecutorService mExecutor;
+
+    /**
+     * Create the engine.
+     *
+     * @param extractor The extractor with the options to use for every file.
+     * @param threads   The number of threads to use, the number of available processors is used if less than 1.
+     */
+    public ExtractionEngine(MainExtractor extractor, int threads) {
+        this(new ExtractionSession(ExtractionConfig.of(extractor)), threads);
+    }
+
+    /**
+     * Create the engine.
+     *
+     * @param session The session to extract every file with, it is shared by all threads.
+     * @param threads The number of threads to use, the number of available processors is used if less than 1.
+     */
+    public ExtractionEngine(ExtractionSession session, int threads) {
+        mSession = session;
+        mThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        mExecutor = null;
+    }
+
+    /**
+     * Create an engine which runs every extraction on the given pool, so concurrent
+     * extractions share its threads instead of creating a pool each.
+     *
+     * @param session  The session to extract every file with, it is shared by all threads.
+     * @param executor The pool to scan and link the files with, it is not shut down by the engine.
+     */
+    public ExtractionEngine(ExtractionSession session, ExecutorService executor) {
+        mSession = session;
+        mThreads = 0;
+        mExecutor = executor;
+    }
+
+    /**
+     * Extract the strings of the given files.
+     *
+     * <p>
+     * The same literal found in many files is written once and linked with the same name.
+     * An error on a single file is printed and the file is skipped.
+     *
+     * @param files   The java or xml files to extract the strings from.
+     * @param xmlFile The file to write the strings of all files.
+     * @return The number of distinct strings extracted from all files.
+     * @throws ExtractionException if the extraction is interrupted or the xml file cannot be written.
+     */
+    public int extract(List<File> files, File xmlFile) throws ExtractionException {
+        ExecutorService executor = newExecutor(mThreads);
+        try {
+            /** phase 1: scan and register the literals */
+            long start = System.nanoTime();
+            LiteralRegistry registry = new LiteralRegistry(files.size());
+            FileExtraction[] extractions = scanAll(executor, files, /*hash=*/false, registry);
+            start = record(ExtractionStats.Stage.SCAN, start);
+
+            /** phase 2: number the literals in order after the strings of the xml file, a literal found before gets the number of its first occurrence */
+            XmlWriter writer = new XmlWriter(xmlFile, /*batch=*/true);
+            writer.setStats(mSession.getStats());
+            int base = mSession.getMaxNumber(writer);
+            int count = 0;
+            for(int i = 0; i < extractions.length; i++) {
+                FileExtraction extraction = extractions[i];
+                if(extraction == null)continue;
+                LiteralIndex index = extraction.getIndex();
+                for(int id = 0; id < index.size(); id++) {
+                    long first = registry.getFirst(index, id);
+                    int file = LiteralRegistry.file(first);
+                    if(file == i) {
+                        extraction.setNumber(id, base + ++count);
+                    } else {
+                        extraction.setNumber(id, extractions[file].getNumber(LiteralRegistry.id(first)));
+                        extraction.setShared(id);
+                        if(extraction.getStats() != null) {
+                            extraction.getStats().addLiterals(0, 0, 1);
+                        }
+                    }
+                }
+            }
+
+            start = record(ExtractionStats.Stage.NUMBER, start);
+
+            /** phase 3: write the xml file, then link in parallel, so no file links a string which was not saved */
+            if(count > 0) {
+                for(FileExtraction extraction : extractions) {
+                    if(extraction == null)continue;
+                    mSession.writeStrings(writer, extraction);
+                }
+                writer.save();
+            }
+            start = record(ExtractionStats.Stage.XML, start);
+            for(Future<?> link : linkAll(executor, extractions)) {
+                link.get();
+            }
+            mSession.writeExtractedStrings(extractions);
+            record(ExtractionStats.Stage.LINK, start);
+            finishAll(extractions);
+            return count;
+        } catch(InterruptedException e) {
+            throw new ExtractionException(e);
+        } catch(ExecutionException e) {
+            throw new ExtractionException(e.getCause());
+        } catch(IOException e) {
+            throw new ExtractionException(e);
+        } finally {
+            release(executor);
+        }
+    }
+
+    /**
+     * Extract the strings of the given files which changed since the last run recorded in the cache.
+     *
+     * <p>
+     * A file with the same size and last modified time as recorded is not read. A file with
+     * the same content hash is not extracted. The new strings are numbered after the
+     * biggest number in the cache in the order of the given files, a string which was extracted
+     * before from any file keeps its number. The xml file is then rebuilt from the strings
+     * of all files and the cache is saved.
+     *
+     * @param files   The java or xml files to extract the strings from.
+     * @param xmlFile The file to write the strings of all files.
+     * @param cache   The cache of the last run.
+     * @return The number of new strings extracted.
+     * @throws ExtractionException if the extraction is interrupted or the xml file or the cache cannot be written.
+     */
+    public int extract(List<File> files, File xmlFile, ExtractionCache cache) throws ExtractionException {
+        return extract(files, files, xmlFile, cache);
+    }
+
+    /**
+     * Extract the strings of the given files which changed since the last run recorded in the cache,
+     * and keep the strings of the other files recorded in the cache which still exist.
+     *
+     * @param changed The java or xml files which may be changed or new.
+     * @param xmlFile The file to write the strings of all files.
+     * @param cache   The cache of the last run.
+     * @return The number of new strings extracted.
+     * @throws ExtractionException if the extraction is interrupted or the xml file or the cache cannot be written.
+     */
+    public int extractChanged(Collection<File> changed, File xmlFile, ExtractionCache cache) throws ExtractionException {
+        Set<File> files = new TreeSet<File>(cache.getFiles());
+        files.addAll(changed);
+        return extract(files, changed, xmlFile, cache);
+    }
+
+    /**
+     * Extract the strings of the candidate files which changed since the last run recorded in the cache.
+     *
+     * <p>
+     * Only the candidates are checked for changes, the records of the other files are kept
+     * as long as they are in the given files.
+     *
+     * @param files      All the java or xml files, the records of the other files are removed.
+     * @param candidates The files which may be changed.
+     * @param xmlFile    The file to write the strings of all files.
+     * @param cache      The cache of the last run.
+     * @return The number of new strings extracted.
+     * @throws ExtractionException if the extraction is interrupted or the xml file or the cache cannot be written.
+     */
+    int extract(Collection<File> files, Collection<File> candidates, File xmlFile, ExtractionCache cache) throws ExtractionException {
+        ExecutorService executor = newExecutor(Math.max(1, Math.min(mThreads, candidates.size())));
+        try {
+            /** phase 0: find the files which may be changed */
+            long start = System.nanoTime();
+            List<File> changed = new ArrayList<File>();
+            for(File file : candidates) {
+                ExtractionCache.Record record = cache.get(file);
+                if(record == null || !record.matches(file)) {
+                    changed.add(file);
+                }
+            }
+            if(changed.size() < candidates.size()) {
+                System.out.print("\r\n" + (candidates.size() - changed.size()) + " files was not changed since last run.");
+            }
+            boolean dirty = cache.retain(files);
+
+            /** phase 1: scan */
+            FileExtraction[] extractions = scanAll(executor, changed, /*hash=*/true, null);
+            start = record(ExtractionStats.Stage.SCAN, start);
+
+            /** phase 2: number the new strings in order, a string extracted before from any file keeps its number */
+            Map<String, Integer> numbers = new HashMap<String, Integer>();
+            for(ExtractionCache.Entry entry : cache.getEntries()) {
+                if(!numbers.containsKey(entry.value)) {
+                    numbers.put(entry.value, entry.number);
+                }
+            }
+            int next = cache.getMaxNumber() + 1;
+            int count = 0;
+            for(int i = 0; i < extractions.length; i++) {
+                FileExtraction extraction = extractions[i];
+                if(extraction == null)continue;
+                File file = extraction.getFile();
+                ExtractionCache.Record record = cache.get(file);
+                if(record != null && record.hash.equals(extraction.getSource().getHash())) {
+                    /** only touched, keep the strings */
+                    cache.put(file, new ExtractionCache.Record(file.length(), file.lastModified(), record.hash, record.entries));
+                    extractions[i] = null;
+                    continue;
+                }
+                LiteralIndex index = extraction.getIndex();
+                for(int id = 0; id < index.size(); id++) {
+                    Integer number = numbers.get(index.get(id));
+                    if(number == null) {
+                        number = next++;
+                        numbers.put(index.get(id), number);
+                        count++;
+                    } else if(extraction.getStats() != null) {
+                        extraction.getStats().addLiterals(0, 0, 1);
+                    }
+                    extraction.setNumber(id, number);
+                }
+                dirty = true;
+            }
+
+            /** phase 3: record the strings of the files */
+            for(FileExtraction extraction : extractions) {
+                if(extraction == null)continue;
+                File file = extraction.getFile();
+                ExtractionCache.Record record = cache.get(file);
+                Map<String, ExtractionCache.Entry> entries = new LinkedHashMap<String, ExtractionCache.Entry>();
+                if(record != null) {
+                    for(ExtractionCache.Entry entry : record.entries) {
+                        entries.put(entry.name, entry);
+                    }
+                }
+                LiteralIndex index = extraction.getIndex();
+                for(int id = 0; id < index.size(); id++) {
+                    String name = mSession.getName(extraction.getNumber(id));
+                    entries.put(name, new ExtractionCache.Entry(extraction.getNumber(id), name, index.get(id)));
+                }
+                cache.put(file, new ExtractionCache.Record(file.length(), file.lastModified(), extraction.getSource().getHash(), new ArrayList<ExtractionCache.Entry>(entries.values())));
+            }
+
+            start = record(ExtractionStats.Stage.NUMBER, start);
+
+            /** phase 4: rebuild the xml file from the strings of all files */
+            if(dirty || !xmlFile.exists()) {
+                XmlWriter writer = new XmlWriter(xmlFile, /*batch=*/true);
+                /** every string is written again, so the file must be merged whatever its size */
+                writer.setMergeAlways(true);
+                writer.setStats(mSession.getStats());
+                for(String name : cache.getRemovedNames()) {
+                    writer.remove(name);
+                }
+                for(ExtractionCache.Entry entry : cache.getEntries()) {
+                    writer.write(entry.name, entry.value);
+                }
+                writer.save();
+            }
+
+            start = record(ExtractionStats.Stage.XML, start);
+
+            /** phase 5: link in parallel once the xml file is saved, then record the new state and hash of the linked files */
+            for(Future<?> link : linkAll(executor, extractions)) {
+                link.get();
+            }
+            mSession.writeExtractedStrings(extractions);
+            for(FileExtraction extraction : extractions) {
+                if(extraction == null)continue;
+                File file = extraction.getFile();
+                ExtractionCache.Record record = cache.get(file);
+                cache.put(file, new ExtractionCache.Record(file.length(), file.lastModified(), extraction.getSource().getHash(), record.entries));
+            }
+            record(ExtractionStats.Stage.LINK, start);
+            finishAll(extractions);
+            cache.save();
+            return count;
+        } catch(InterruptedException e) {
+            throw new ExtractionException(e);
+        } catch(ExecutionException e) {
+            throw new ExtractionException(e.getCause());
+        } catch(IOException e) {
+            throw new ExtractionException(e);
+        } finally {
+            release(executor);
+        }
+    }
+
+    /** add the wall time since the given start to the stage if the stats are set, and return the time now */
+    private long record(ExtractionStats.Stage stage, long start) {
+        long now = System.nanoTime();
+        ExtractionStats stats = mSession.getStats();
+        if(stats != null) {
+            stats.addWallNanos(stage, now - start);
+        }
+        return now;
+    }
+
+    /** @return the shared pool, or a new pool of the given threads which is shut down by the caller */
+    private ExecutorService newExecutor(int threads) {
+        return mExecutor != null ? mExecutor : Executors.newFixedThreadPool(threads);
+    }
+
+    /** shut down the given pool unless it is shared */
+    private void release(ExecutorService executor) {
+        if(executor != mExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * scan the given files in parallel, a file which cannot be scanned is null.
+     *
+     * @param registry the registry to register the literals of every file with its index, or null.
+     */
+    private FileExtraction[] scanAll(ExecutorService executor, List<File> files, final boolean hash, final LiteralRegistry registry) throws InterruptedException, ExecutionException {
+        List<Future<FileExtraction>> scans = new ArrayList<Future<FileExtraction>>(files.size());
+        for(int i = 0; i < files.size(); i++) {
+            final File file = files.get(i);
+            final int fileIndex = i;
+            scans.add(executor.submit(new Callable<FileExtraction>() {
+
+                @Override
+                public FileExtraction call() {
+                    try {
+                        FileExtraction extraction = mSession.scan(file, hash);
+                        if(extraction != null && registry != null) {
+                            registry.register(extraction, fileIndex);
+                        }
+                        return extraction;
+                    } catch(Exception e) {
+                        e.printStackTrace(System.out);
+                        return null;
+                    }
+                }
+            }));
+        }
+        FileExtraction[] extractions = new FileExtraction[files.size()];
+        for(int i = 0; i < extractions.length; i++) {
+            extractions[i] = scans.get(i).get();
+        }
+        return extractions;
+    }
+
+    /** add the stats of the extracted files in order */
+    private void finishAll(FileExtraction[] extractions) {
+        for(FileExtraction extraction : extractions) {
+            if(extraction != null) {
+                mSession.finish(extraction);
+            }
+        }
+    }
+
+    /** link the numbered extractions in parallel */
+    private List<Future<?>> linkAll(ExecutorService executor, FileExtraction[] extractions) {
+        List<Future<?>> links = new ArrayList<Future<?>>(extractions.length);
+        for(final FileExtraction extraction : extractions) {
+            if(extraction == null)continue;
+            links.add(executor.submit(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        mSession.link(extraction);
+                    } catch(Exception e) {
+                        e.printStackTrace(System.out);
+                    }
+                }
+            }));
+        }
+        return links;
+    }
+}
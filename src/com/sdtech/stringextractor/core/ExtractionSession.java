@@ -0,0 +1,287 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+import com.sdtech.stringextractor.ExtractedLiteral;
+import com.sdtech.stringextractor.ExtractedString;
+import com.sdtech.stringextractor.ExtractionConfig;
+import com.sdtech.stringextractor.ExtractionStats;
+import com.sdtech.stringextractor.XmlWriter;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An extraction session which does the work of every file with a single {@link ExtractionConfig}.
+ *
+ * <p>
+ * The name template, the xml attribute set and the readers are compiled once when the session
+ * is created and never change, so a session is thread safe: the worker threads of an
+ * {@link ExtractionEngine} scan and link thousands of files with the same session at the same time.
+ */
+public final class ExtractionSession {
+
+    /** prefix for linking strings from java */
+    private static final String JAVA_CODE = "R.string.";
+
+    /** prefix for linking strings from xml */
+    private static final String XML_CODE = "@string/";
+
+    private final ExtractionConfig mConfig;
+    private final NameTemplate mNames;
+    private final AttributeSet mAttributes;
+    private final SourceReader mReader;
+    private final SourceReader mHashReader;
+    private final BytePrefilter mPrefilter;
+
+    /**
+     * Create the session and compile the given config.
+     *
+     * @param config The options of the extraction.
+     */
+    public ExtractionSession(ExtractionConfig config) {
+        mConfig = config;
+        mNames = new NameTemplate(config.getPrefix(), config.getSuffix());
+        mAttributes = new AttributeSet(config.getXmlAttributes());
+        mReader = new SourceReader(config.getCharset(), /*hash=*/false);
+        mHashReader = new SourceReader(config.getCharset(), /*hash=*/true);
+        mPrefilter = new BytePrefilter(mReader.getCharset(), mAttributes.getNames());
+    }
+
+    /** @return the options of this session. */
+    public ExtractionConfig getConfig() {
+        return mConfig;
+    }
+
+    /** @return the stats to record the extraction to, or null. */
+    ExtractionStats getStats() {
+        return mConfig.getStats();
+    }
+
+    /** read and decode the given file, the text is empty if the file has certainly no string */
+    CharBuffer read(File file, boolean javaCode) throws IOException {
+        return mReader.read(file, mPrefilter, javaCode).getText();
+    }
+
+    /** create the scanner of java or xml code with the attributes of this session */
+    LiteralScanner newScanner(boolean javaCode, CharSequence text) {
+        return javaCode ? new JavaLiteralLexer(text) : new XmlAttributeScanner(text, mAttributes);
+    }
+
+    /**
+     * Iterate the strings of the given java or xml file, or of the java and xml files of the given directory and its
+     * sub directories, without writing anything.
+     *
+     * <p> The files are read when the iteration reaches them, in the order of their paths. The files of a directory
+     * are the files found by a default {@link SourceWalker} of the directory.
+     *
+     * @param path The file or the directory to scan.
+     * @return The iterator of the strings found.
+     */
+    public Iterator<ExtractedLiteral> scan(Path path) {
+        return new LiteralIterator(this, new SourceFileIterator(path));
+    }
+
+    /**
+     * Iterate the strings of the files found by the given walker, in the same order and with the same
+     * rules as {@link SourceWalker#walk()}, without writing anything.
+     *
+     * @param walker The walker of the directory to scan.
+     * @return The iterator of the strings found.
+     */
+    public Iterator<ExtractedLiteral> scan(SourceWalker walker) {
+        return new LiteralIterator(this, new SourceFileIterator(walker.getDirectory().toPath(), walker));
+    }
+
+    /**
+     * read the given file and find its strings.
+     *
+     * @param hash indicates whether to compute the content hash of the file.
+     * @return the scanned file or null if it is not java or xml file.
+     */
+    FileExtraction scan(File fileToRead, boolean hash) throws IOException {
+        boolean javaCode = fileToRead.getName().endsWith(".java");
+        if(!javaCode && !fileToRead.getName().endsWith(".xml")) {
+            System.out.println("\r\nfileToRead must be valid java or xml file. but got: " + fileToRead.getAbsolutePath());
+            return null;
+        }
+        long start = System.nanoTime();
+        /** a file without a qoute or an attribute name is not decoded nor scanned */
+        SourceText source = (hash ? mHashReader : mReader).read(fileToRead, mPrefilter, javaCode);
+        long read = System.nanoTime();
+        CharBuffer fileString = source.getText();
+        LiteralScanner scanner = newScanner(javaCode, fileString);
+        FileExtraction extraction = new FileExtraction(fileToRead, source, javaCode);
+        int matched = 0;
+        int blank = 0;
+        while(scanner.find()) {
+            // skip empty and blank string
+            if(scanner.isBlank()) {
+                blank++;
+                continue;
+            }
+            matched++;
+            extraction.add(scanner.start(), scanner.end(), scanner.valueStart(), scanner.valueEnd());
+        }
+        if(javaCode) {
+            extraction.setPackageName(((JavaLiteralLexer) scanner).getPackageName());
+        }
+        /** the literals of every file are kept until the strings of all files are written */
+        extraction.getIndex().trimToSize();
+        ExtractionStats stats = mConfig.getStats();
+        if(stats != null) {
+            ExtractionStats.FileStats fileStats = new ExtractionStats.FileStats(fileToRead);
+            fileStats.addBytesRead(fileToRead.length());
+            fileStats.addNanos(ExtractionStats.Phase.READ, read - start);
+            fileStats.addNanos(ExtractionStats.Phase.SCAN, System.nanoTime() - read);
+            fileStats.addLiterals(matched, blank, matched - extraction.size());
+            if(source.isSkipped()) {
+                fileStats.setSkipped();
+            }
+            extraction.setStats(fileStats);
+        }
+        return extraction;
+    }
+
+    /**
+     * write the strings of the scanned file to xml file and link them.
+     *
+     * @param xmlFile the file to write the strings, or null to write them next to the scanned file.
+     * @param base    the number of the first string is base + 1, or after the biggest number in the xml file.
+     */
+    void commit(FileExtraction extraction, File xmlFile, int base) throws IOException {
+        File fileToRead = extraction.getFile();
+        if(xmlFile == null) {
+            xmlFile = new File(fileToRead.getParent(), fileToRead.getName() + "_extracted_strings.xml");
+        }
+        if(extraction.size() <= 0) {
+            System.out.print("\r\nNo strings found on: " + fileToRead.getAbsolutePath());
+            finish(extraction);
+            return;
+        }
+        //write the extracted strings to xml file, named after the strings already in it
+        XmlWriter writer = new XmlWriter(xmlFile, /*batch=*/true);
+        writer.setStats(mConfig.getStats());
+        extraction.setBase(Math.max(base, getMaxNumber(writer)));
+        writeStrings(writer, extraction);
+        writer.save();
+        link(extraction);
+        writeExtractedStrings(new FileExtraction[] { extraction });
+        finish(extraction);
+    }
+
+    /** add the stats of the extracted file to the stats of the extraction, if recorded */
+    void finish(FileExtraction extraction) {
+        ExtractionStats stats = mConfig.getStats();
+        if(stats != null && extraction.getStats() != null) {
+            stats.add(extraction.getStats());
+        }
+    }
+
+    /**
+     * append the strings of the scanned file to the xml writer, with the numbers set to the extraction.
+     * the strings found first in another file are written by that file.
+     */
+    void writeStrings(XmlWriter writer, FileExtraction extraction) throws IOException {
+        LiteralIndex index = extraction.getIndex();
+        for(int id = 0; id < index.size(); id++) {
+            if(extraction.isShared(id))continue;
+            writer.write(mNames.getName(extraction.getNumber(id)), index.get(id));
+        }
+    }
+
+    /**
+     * backup the scanned file if enabled and replace its strings with the code which links them,
+     * with the numbers set to the extraction.
+     */
+    void link(FileExtraction extraction) throws IOException {
+        File fileToRead = extraction.getFile();
+        LiteralIndex index = extraction.getIndex();
+        if(index.size() <= 0) {
+            return;
+        }
+        if(mConfig.isBackupFile()) {
+            fileToRead.renameTo(new File(fileToRead.getPath() + ".backup"));
+        }
+        System.out.print("\r\n" + index.size() + " strings was found on: " + fileToRead.getAbsolutePath());
+        //replacing the recorded spans and save the modified code to file
+        boolean javaCode = extraction.isJavaCode();
+        String[] codes = new String[index.size()];
+        for(int id = 0; id < codes.length; id++) {
+            codes[id] = getCode(javaCode, extraction.getNumber(id));
+        }
+        long start = System.nanoTime();
+        CharSequence fileString = extraction.rewrite(codes);
+        extraction.write(fileString);
+        if(extraction.getStats() != null) {
+            extraction.getStats().addNanos(ExtractionStats.Phase.REWRITE, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Generate ExtractedString.java file if enable, once in every directory of the linked java files.
+     *
+     * <p> The package of a directory is the package of its first file in the given order. This is called
+     * once at the end of the run, after all the files are linked.
+     *
+     * @param extractions the linked files in order, may contain null.
+     */
+    void writeExtractedStrings(FileExtraction[] extractions) throws IOException {
+        if(!mConfig.isExtractedString()) {
+            return;
+        }
+        Map<File, String> packages = new LinkedHashMap<File, String>();
+        for(FileExtraction extraction : extractions) {
+            if(extraction == null || !extraction.isJavaCode() || extraction.getIndex().size() <= 0)continue;
+            File dir = extraction.getFile().getAbsoluteFile().getParentFile();
+            if(!packages.containsKey(dir)) {
+                String pkgName = extraction.getPackageName();
+                packages.put(dir, pkgName != null ? "package " + pkgName + ";" : "");
+            }
+        }
+        ExtractedString generator = ExtractedString.getInstance(mConfig.isCachedExtractedString());
+        for(Map.Entry<File, String> entry : packages.entrySet()) {
+            generator.writeTo(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /** @return the biggest number of the strings named by this session in the file of the given writer, 0 if none */
+    int getMaxNumber(XmlWriter writer) throws IOException {
+        return mNames.getMaxNumber(writer.getNames());
+    }
+
+    /** generate the name of the string with the given number */
+    String getName(int number) {
+        return mNames.getName(number);
+    }
+
+    /** generate the code which links the string with the given number */
+    String getCode(boolean javaCode, int number) {
+        if(javaCode) {
+            return mConfig.isExtractedString() ? "ExtractedString.getString(" + JAVA_CODE + mNames.getName(number) + ")" :
+                "getResources().getString(" + JAVA_CODE + mNames.getName(number) + ")";
+        }
+        return XML_CODE + mNames.getName(number);
+    }
+}
@@ -0,0 +1,265 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+import com.sdtech.stringextractor.ExtractionException;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a directory and extracts the strings of the java and xml files when they change.
+ *
+ * <p>
+ * Every directory of the tree is registered with a {@link WatchService}. The events are
+ * collected until no event comes for {@link #DEBOUNCE_MILLIS}, then only the changed files
+ * are extracted with {@link ExtractionEngine#extract(java.util.Collection, java.util.Collection, File, ExtractionCache)}
+ * and the xml file is updated in place.
+ *
+ * <p>
+ * The files linked by the watcher itself are recorded in the cache with their new size and
+ * time, so the events of those writes are ignored without reading the files again.
+ *
+ * <p>
+ * The files and the directories are filtered by a {@link SourceWalker}, so the include and exclude
+ * globs and the .gitignore rules apply to the files found first and to the events. A changed
+ * .gitignore file reloads the rules and checks the whole tree again.
+ */
+public final class ExtractionWatcher {
+
+    /** the time without events to wait before extracting the changed files */
+    public static final long DEBOUNCE_MILLIS = 20;
+
+    /** the engine which extracts the changed files */
+    private final ExtractionEngine mEngine;
+
+    /** the directory to watch */
+    private final File mDirectory;
+
+    /** the rules of the files to extract */
+    private final SourceWalker mWalker;
+
+    /** the file to write the strings of all files */
+    private final File mXmlFile;
+
+    /** the state of the files since the last extraction */
+    private final ExtractionCache mCache;
+
+    /** the watched directories by key */
+    private final Map<WatchKey, Path> mKeys = new HashMap<WatchKey, Path>();
+
+    /** the java and xml files of the directory, sorted so the new strings are numbered in the same order */
+    private final Set<File> mFiles = new TreeSet<File>();
+
+    /**
+     * Create the watcher.
+     *
+     * @param engine    The engine with the options to extract the files with.
+     * @param directory The directory to watch.
+     * @param xmlFile   The file to write the strings of all files.
+     * @param cache     The state of the files extracted before, may be kept only in memory.
+     */
+    public ExtractionWatcher(ExtractionEngine engine, File directory, File xmlFile, ExtractionCache cache) {
+        this(engine, new SourceWalker(directory), xmlFile, cache);
+    }
+
+    /**
+     * Create the watcher of the directory of the given walker.
+     *
+     * @param engine  The engine with the options to extract the files with.
+     * @param walker  The directory to watch with the globs and the ignore rules of the files to extract.
+     * @param xmlFile The file to write the strings of all files.
+     * @param cache   The state of the files extracted before, may be kept only in memory.
+     */
+    public ExtractionWatcher(ExtractionEngine engine, SourceWalker walker, File xmlFile, ExtractionCache cache) {
+        mEngine = engine;
+        mWalker = walker;
+        mDirectory = walker.getDirectory();
+        mXmlFile = xmlFile.getAbsoluteFile();
+        mCache = cache;
+    }
+
+    /**
+     * Extract the files of the directory which changed since the last run, then keep
+     * extracting the files when they change until the current thread is interrupted.
+     *
+     * @throws ExtractionException if the directory cannot be watched or the xml file or the cache cannot be written.
+     */
+    public void watch() throws ExtractionException {
+        WatchService service = null;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+            register(service, mDirectory.toPath(), null);
+            int count = mEngine.extract(mFiles, mFiles, mXmlFile, mCache);
+            System.out.print("\r\n" + count + " strings was extracted from " + mFiles.size() + " files, watching: " + mDirectory);
+
+            while(!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                long startTime = System.nanoTime();
+                Set<File> changed = new TreeSet<File>();
+                boolean removed = false;
+                /** collect the events until the burst is over */
+                while(key != null) {
+                    removed |= handle(service, key, changed);
+                    key = service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                /** skip the files written by the last extraction */
+                Iterator<File> it = changed.iterator();
+                while(it.hasNext()) {
+                    File file = it.next();
+                    ExtractionCache.Record record = mCache.get(file);
+                    if(!mFiles.contains(file) || (record != null && record.matches(file))) {
+                        it.remove();
+                    }
+                }
+                if(changed.isEmpty() && !removed) {
+                    continue;
+                }
+                count = mEngine.extract(mFiles, changed, mXmlFile, mCache);
+                System.out.print("\r\n" + count + " strings was extracted from " + changed.size() + " changed files in " + (System.nanoTime() - startTime) / 1000000 + " ms.");
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(IOException e) {
+            throw new ExtractionException(e);
+        } finally {
+            if(service != null) {
+                try {
+                    service.close();
+                } catch(IOException e) {}
+            }
+        }
+    }
+
+    /**
+     * handle the events of the given key.
+     *
+     * @param changed the set to add the created or modified files to.
+     * @return true if a file was deleted.
+     */
+    private boolean handle(WatchService service, WatchKey key, Set<File> changed) throws IOException {
+        Path dir = mKeys.get(key);
+        boolean removed = false;
+        for(WatchEvent<?> event : key.pollEvents()) {
+            if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                /** events was lost, check all files */
+                removed |= rescan(service, changed);
+                continue;
+            }
+            if(dir == null)continue;
+            Path child = dir.resolve((Path) event.context());
+            File file = child.toFile();
+            if(child.getFileName().toString().equals(".gitignore")) {
+                /** the ignored files may have changed anywhere below */
+                mWalker.reloadIgnoreRules();
+                removed |= rescan(service, changed);
+            } else if(event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+                if(mWalker.accept(child, true)) {
+                    register(service, child, changed);
+                }
+            } else if(isSource(file)) {
+                if(file.isFile()) {
+                    mFiles.add(file);
+                    changed.add(file);
+                } else {
+                    removed |= mFiles.remove(file);
+                }
+            }
+        }
+        if(!key.reset()) {
+            mKeys.remove(key);
+        }
+        return removed;
+    }
+
+    /**
+     * find the files of the whole directory again.
+     *
+     * @return true if a file was deleted.
+     */
+    private boolean rescan(WatchService service, Set<File> changed) throws IOException {
+        Set<File> old = new TreeSet<File>(mFiles);
+        mFiles.clear();
+        register(service, mDirectory.toPath(), changed);
+        old.removeAll(mFiles);
+        return !old.isEmpty();
+    }
+
+    /**
+     * register the given directory and its sub directories and add their files.
+     *
+     * @param changed the set to add the found files to, or null.
+     */
+    private void register(final WatchService service, Path start, final Set<File> changed) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                /** the excluded directories are neither extracted nor watched */
+                if(!mWalker.accept(dir, true)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                WatchKey key = dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                mKeys.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
+                File file = path.toFile();
+                if(attrs.isRegularFile() && isSource(file)) {
+                    mFiles.add(file);
+                    if(changed != null) {
+                        changed.add(file);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path path, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /** check if the given file is a java or xml file to extract, the xml file and the manifest are not */
+    private boolean isSource(File file) throws IOException {
+        if(!mWalker.accept(file.toPath(), /*directory=*/false)) {
+            return false;
+        }
+        return !file.equals(mXmlFile) && (mCache.getManifest() == null || !file.equals(mCache.getManifest().getAbsoluteFile()));
+    }
+}
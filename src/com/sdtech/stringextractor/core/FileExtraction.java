@@ -0,0 +1,149 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+import com.sdtech.stringextractor.ExtractionStats;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The result of scanning a single file: its text, the distinct literals
+ * found and the spans to replace when linking them.
+ *
+ * <p>
+ * Scanning does not depend on the numbers of the strings, so the files can be scanned
+ * in any order or in parallel and numbered later with {@link #setBase(int)} or {@link #setNumber(int, int)}.
+ */
+final class FileExtraction {
+
+    private final File mFile;
+    private final SourceText mSource;
+    private final CharSequence mText;
+    private final boolean mJavaCode;
+    private final LiteralIndex mIndex = new LiteralIndex();
+    private final SourceRewriter mRewriter = new SourceRewriter();
+
+    /** the number of every literal by id */
+    private int[] mNumbers;
+
+    /** the stats of the file, or null if not recorded */
+    private ExtractionStats.FileStats mStats;
+
+    /** indicates by id if the literal was found first in another file, null if none */
+    private boolean[] mShared;
+
+    /** the package declared in the java code, null if none */
+    private String mPackageName;
+
+    FileExtraction(File file, SourceText source, boolean javaCode) {
+        mFile = file;
+        mSource = source;
+        mText = source.getText();
+        mJavaCode = javaCode;
+    }
+
+    /** record the literal of the given spans */
+    void add(int start, int end, int valueStart, int valueEnd) {
+        int id = mIndex.add(mText, valueStart, valueEnd);
+        mRewriter.add(start, end, id);
+    }
+
+    /** number the literals from base + 1 in the order they was found */
+    void setBase(int base) {
+        mNumbers = new int[mIndex.size()];
+        for(int id = 0; id < mNumbers.length; id++) {
+            mNumbers[id] = base + id + 1;
+        }
+    }
+
+    /** set the number of the literal with the given id */
+    void setNumber(int id, int number) {
+        if(mNumbers == null) {
+            mNumbers = new int[mIndex.size()];
+        }
+        mNumbers[id] = number;
+    }
+
+    /** set the package declared in the java code */
+    void setPackageName(String packageName) {
+        mPackageName = packageName;
+    }
+
+    /** @return the package declared in the java code, or null if none */
+    String getPackageName() {
+        return mPackageName;
+    }
+
+    /** mark the literal with the given id as found first in another file, so it is written by that file */
+    void setShared(int id) {
+        if(mShared == null) {
+            mShared = new boolean[mIndex.size()];
+        }
+        mShared[id] = true;
+    }
+
+    /** @return true if the literal with the given id was found first in another file */
+    boolean isShared(int id) {
+        return mShared != null && mShared[id];
+    }
+
+    /** @return the number of the literal with the given id */
+    int getNumber(int id) {
+        return mNumbers[id];
+    }
+
+    /** rewrite the text with the given replacement of every literal by id */
+    CharSequence rewrite(String[] replacements) {
+        return mRewriter.rewrite(mText, replacements);
+    }
+
+    /** write the given text to the file with the charset it was read with */
+    void write(CharSequence text) throws IOException {
+        mSource.write(mFile, text);
+    }
+
+    void setStats(ExtractionStats.FileStats stats) {
+        mStats = stats;
+    }
+
+    /** @return the stats of the file, or null if not recorded */
+    ExtractionStats.FileStats getStats() {
+        return mStats;
+    }
+
+    SourceText getSource() {
+        return mSource;
+    }
+
+    File getFile() {
+        return mFile;
+    }
+
+    boolean isJavaCode() {
+        return mJavaCode;
+    }
+
+    LiteralIndex getIndex() {
+        return mIndex;
+    }
+
+    /** @return the number of distinct strings found */
+    int size() {
+        return mIndex.size();
+    }
+}
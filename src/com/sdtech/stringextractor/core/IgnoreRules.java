@@ -0,0 +1,174 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.sdtech.stringextractor.core;
+
+import java.io.IOException;
+
+import java.nio.charset.Charset;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The rules of a <code>.gitignore</code> file.
+ *
+ * <p>
+ * A pattern without a slash, other than a trailing one, matches the name of a file or a directory
+ * at any depth below the directory of the rules. A pattern with a slash matches the path relative to
+ * the directory of the rules. A pattern ending with a slash matches only directories, and a pattern
+ * starting with '!' includes again what a previous pattern ignored. The last matching pattern wins.
+ */
+final class IgnoreRules {
+
+    /** the name of the files to read the rules from */
+    static final String FILE_NAME = ".gitignore";
+
+    /** the directory the patterns are relative to */
+    private final Path mDirectory;
+
+    /** the rules in the order of the file */
+    private final List<Rule> mRules = new ArrayList<Rule>();
+
+    IgnoreRules(Path directory) {
+        mDirectory = directory;
+    }
+
+    /**
+     * read the rules of the <code>.gitignore</code> file of the given directory.
+     *
+     * @return the rules, or null if the directory has no <code>.gitignore</code> file or it has no rules.
+     */
+    static IgnoreRules read(Path directory) throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        if(!Files.isRegularFile(file)) {
+            return null;
+        }
+        IgnoreRules rules = new IgnoreRules(directory);
+        for(String line : Files.readAllLines(file, Charset.forName("UTF-8"))) {
+            rules.add(line);
+        }
+        return rules.mRules.isEmpty() ? null : rules;
+    }
+
+    /** add the rule of the given line, blank lines and comments are skipped */
+    void add(String line) {
+        String pattern = trimTrailingSpaces(line);
+        if(pattern.isEmpty() || pattern.charAt(0) == '#') {
+            return;
+        }
+        boolean negate = false;
+        if(pattern.charAt(0) == '!') {
+            negate = true;
+            pattern = pattern.substring(1);
+        } else if(pattern.startsWith("\\!") || pattern.startsWith("\\#")) {
+            pattern = pattern.substring(1);
+        }
+        boolean directoryOnly = pattern.endsWith("/");
+        if(directoryOnly) {
+            pattern = pattern.substring(0, pattern.length() - 1);
+        }
+        if(pattern.isEmpty()) {
+            return;
+        }
+        /** a pattern with a slash is relative to the directory, otherwise it matches a name */
+        boolean anchored = pattern.indexOf('/') >= 0;
+        if(pattern.startsWith("/")) {
+            pattern = pattern.substring(1);
+        }
+        FileSystem fs = mDirectory.getFileSystem();
+        String glob = escapeBraces(pattern);
+        mRules.add(new Rule(fs.getPathMatcher("glob:" + glob), anchored, directoryOnly, negate));
+        if(glob.startsWith("**/")) {
+            /** '**' also matches no directory at all */
+            String rest = glob.substring(3);
+            mRules.add(new Rule(fs.getPathMatcher("glob:" + rest), rest.indexOf('/') >= 0, directoryOnly, negate));
+        }
+    }
+
+    /**
+     * match the given path against the rules.
+     *
+     * @param path      the path of a file or directory below the directory of the rules.
+     * @param directory true if the path is a directory.
+     * @return true if ignored, false if included again by a negated rule, or null if no rule matches.
+     */
+    Boolean match(Path path, boolean directory) {
+        Path relative = mDirectory.relativize(path);
+        Path name = path.getFileName();
+        Boolean result = null;
+        for(Rule rule : mRules) {
+            if(rule.mDirectoryOnly && !directory) {
+                continue;
+            }
+            if(rule.mMatcher.matches(rule.mAnchored ? relative : name)) {
+                result = !rule.mNegate;
+            }
+        }
+        return result;
+    }
+
+    /** @return the directory the patterns are relative to */
+    Path getDirectory() {
+        return mDirectory;
+    }
+
+    /** remove the trailing spaces which are not escaped */
+    private static String trimTrailingSpaces(String line) {
+        int end = line.length();
+        while(end > 0 && line.charAt(end - 1) == ' ' && (end < 2 || line.charAt(end - 2) != '\\')) {
+            end--;
+        }
+        return line.substring(0, end);
+    }
+
+    /** braces are literal in gitignore patterns but groups in java globs */
+    private static String escapeBraces(String pattern) {
+        if(pattern.indexOf('{') < 0 && pattern.indexOf('}') < 0) {
+            return pattern;
+        }
+        StringBuilder sb = new StringBuilder(pattern.length() + 4);
+        for(int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if(c == '{' || c == '}') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /** a single pattern of the file */
+    private static final class Rule {
+
+        private final PathMatcher mMatcher;
+        private final boolean mAnchored;
+        private final boolean mDirectoryOnly;
+        private final boolean mNegate;
+
+        Rule(PathMatcher matcher, boolean anchored, boolean directoryOnly, boolean negate) {
+            mMatcher = matcher;
+            mAnchored = anchored;
+            mDirectoryOnly = directoryOnly;
+            mNegate = negate;
+        }
+    }
+}
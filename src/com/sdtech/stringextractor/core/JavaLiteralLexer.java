@@ -0,0 +1,219 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+/**
+ * A single pass lexer that finds the string literals of java source code.
+ *
+ * <p>
+ * The text is walked once from start to end without any regex. Comments,
+ * char literals like <code>'"'</code> and text blocks are skipped, and escaped
+ * qoutes like <code>\"</code> does not end the literal.
+ * A literal that is not closed before the end of line is ignored.
+ *
+ * <p>
+ * The replace span of a literal contains the qoutes, the value span does not.
+ *
+ * <p>
+ * The package declaration is read on the same pass, see {@link #getPackageName()}.
+ */
+public final class JavaLiteralLexer extends LiteralScanner {
+
+    private static final String PACKAGE = "package";
+
+    /** the name of the package declared, null if not found yet */
+    private String mPackageName;
+
+    /**
+     * Create the lexer over the given java source code.
+     *
+     * @param text The java source code to scan.
+     */
+    public JavaLiteralLexer(CharSequence text) {
+        super(text);
+    }
+
+    @Override
+    public boolean find() {
+        final CharSequence text = mText;
+        final int length = text.length();
+        int i = mPos;
+        while(i < length) {
+            char c = text.charAt(i);
+            if(c == '/' && i + 1 < length) {
+                char next = text.charAt(i + 1);
+                if(next == '/') {
+                    /** line comment, skip to end of line */
+                    i = skipLine(i + 2);
+                    continue;
+                } else if(next == '*') {
+                    /** block comment, skip to closing star slash */
+                    i = skipBlockComment(i + 2);
+                    continue;
+                }
+                i++;
+            } else if(c == 'p' && mPackageName == null && isKeyword(i, PACKAGE)) {
+                i = readPackage(i + PACKAGE.length());
+            } else if(c == '\'') {
+                i = skipQuoted(i + 1, '\'');
+            } else if(c == '"') {
+                if(i + 2 < length && text.charAt(i + 1) == '"' && text.charAt(i + 2) == '"') {
+                    /** text block, we dont extract it */
+                    i = skipTextBlock(i + 3);
+                    continue;
+                }
+                int close = findClosingQuote(i + 1);
+                if(close < 0) {
+                    /** not closed on this line, continue from next line */
+                    i = skipLine(i + 1);
+                    continue;
+                }
+                mPos = close + 1;
+                setSpan(i, close + 1, i + 1, close);
+                return true;
+            } else {
+                i++;
+            }
+        }
+        mPos = length;
+        return false;
+    }
+
+    /**
+     * @return the name of the package declared in the code scanned so far, e.g <code>com.example.app</code>,
+     * or null if not found. The declaration comes before any literal, so it is found by the first {@link #find()}.
+     */
+    public String getPackageName() {
+        return mPackageName;
+    }
+
+    /** check if the given keyword starts at the given index and is not a part of another identifier */
+    private boolean isKeyword(int i, String keyword) {
+        final int end = i + keyword.length();
+        if(end >= mText.length() || (i > 0 && Character.isJavaIdentifierPart(mText.charAt(i - 1)))) {
+            return false;
+        }
+        for(int k = 0; k < keyword.length(); k++) {
+            if(mText.charAt(i + k) != keyword.charAt(k)) {
+                return false;
+            }
+        }
+        return !Character.isJavaIdentifierPart(mText.charAt(end));
+    }
+
+    /** read the name of the package up to ';', skipping the spaces and comments, and return the index after it */
+    private int readPackage(int i) {
+        final int length = mText.length();
+        StringBuilder name = new StringBuilder();
+        while(i < length) {
+            char c = mText.charAt(i);
+            if(c == ';') {
+                mPackageName = name.toString();
+                return i + 1;
+            } else if(c == '/' && i + 1 < length && mText.charAt(i + 1) == '/') {
+                i = skipLine(i + 2);
+            } else if(c == '/' && i + 1 < length && mText.charAt(i + 1) == '*') {
+                i = skipBlockComment(i + 2);
+            } else if(c == '.' || Character.isJavaIdentifierPart(c)) {
+                name.append(c);
+                i++;
+            } else if(Character.isWhitespace(c)) {
+                i++;
+            } else {
+                /** not a package declaration */
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /** return the index after the end of current line */
+    private int skipLine(int i) {
+        final int length = mText.length();
+        while(i < length) {
+            char c = mText.charAt(i++);
+            if(c == '\n' || c == '\r') {
+                break;
+            }
+        }
+        return i;
+    }
+
+    /** return the index after the closing of block comment */
+    private int skipBlockComment(int i) {
+        final int length = mText.length();
+        while(i + 1 < length) {
+            if(mText.charAt(i) == '*' && mText.charAt(i + 1) == '/') {
+                return i + 2;
+            }
+            i++;
+        }
+        return length;
+    }
+
+    /** return the index after the closing qoute, or after end of line if not closed */
+    private int skipQuoted(int i, char quote) {
+        final int length = mText.length();
+        while(i < length) {
+            char c = mText.charAt(i);
+            if(c == '\\') {
+                i += 2;
+            } else if(c == quote) {
+                return i + 1;
+            } else if(c == '\n' || c == '\r') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    /** return the index after the closing of text block */
+    private int skipTextBlock(int i) {
+        final int length = mText.length();
+        while(i < length) {
+            char c = mText.charAt(i);
+            if(c == '\\') {
+                i += 2;
+            } else if(c == '"' && i + 2 < length && mText.charAt(i + 1) == '"' && mText.charAt(i + 2) == '"') {
+                return i + 3;
+            } else {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    /** return the index of the closing qoute of string literal or -1 if not closed on the same line */
+    private int findClosingQuote(int i) {
+        final int length = mText.length();
+        while(i < length) {
+            char c = mText.charAt(i);
+            if(c == '\\') {
+                i += 2;
+            } else if(c == '"') {
+                return i;
+            } else if(c == '\n' || c == '\r') {
+                return -1;
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+}
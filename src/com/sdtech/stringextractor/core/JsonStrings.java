@@ -0,0 +1,60 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+/**
+ * Writes the strings of the json reports and responses, with the qoutes and the escapes.
+ *
+ * <p>
+ * The control characters are escaped with a table of hex digits instead of {@link String#format},
+ * which loads {@link java.util.Formatter} and the regex engine.
+ */
+public final class JsonStrings {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private JsonStrings() {
+    }
+
+    /**
+     * Append the given value as json string, with the qoutes.
+     *
+     * @param json  the json to append to.
+     * @param value the value to append.
+     * @return the given json.
+     */
+    public static StringBuilder append(StringBuilder json, String value) {
+        json.append('"');
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if(c == '\n') {
+                json.append("\\n");
+            } else if(c == '\r') {
+                json.append("\\r");
+            } else if(c == '\t') {
+                json.append("\\t");
+            } else if(c < 0x20) {
+                json.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xf]);
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+}
@@ -0,0 +1,375 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+import java.util.Arrays;
+
+/**
+ * An insertion ordered index of the extracted literals.
+ *
+ * <p>
+ * Every distinct literal gets an id, starting from 0 in the order it was first added.
+ * The lookup is done with an open addressing hash table of 64 bit hashes so de-duplication
+ * is an expected O(1) step, and a literal is compared straight with the scanned text.
+ *
+ * <p>
+ * The literals are not kept as String objects: they are stored as UTF-8 bytes, one after the other,
+ * in large byte arrays and a String is only created when {@link #get(int)} is called. A run over
+ * a large tree keeps the literals of all files until they are written, so once {@link #trimToSize()}
+ * is called a literal costs its bytes and 20 bytes of arrays, plus its slots in the hash table,
+ * instead of a String with its own array, the reference and the hash.
+ *
+ * <p>
+ * The resource name and the code of a literal are not stored, they are
+ * computed from the id when needed.
+ *
+ * <p>
+ * This class is not thread safe, a lookup keeps the hash of the text in the index.
+ */
+public final class LiteralIndex {
+
+    /** the size of the first byte array, the next ones double up to {@link #MAX_SEGMENT_SIZE} */
+    private static final int MIN_SEGMENT_SIZE = 256;
+
+    /** the size of the largest byte array, a longer literal gets an array of its own size */
+    private static final int MAX_SEGMENT_SIZE = 1 << 20;
+
+    /** the byte arrays which store the literals */
+    private byte[][] mSegments = new byte[4][];
+
+    /** the number of byte arrays used */
+    private int mSegmentCount;
+
+    /** the number of bytes used in the last byte array */
+    private int mPosition;
+
+    /** the addresses of the literals by id, the index of the byte array in the high 32 bits and the offset in the low 32 bits */
+    private long[] mAddresses = new long[16];
+
+    /** the lengths in bytes of the literals by id */
+    private int[] mLengths = new int[16];
+
+    /** the hashes of the literals by id */
+    private long[] mHashes = new long[16];
+
+    /** the hash table, stores id + 1 of the literal or 0 for empty slot */
+    private int[] mTable = new int[32];
+
+    /** the number of literals */
+    private int mSize;
+
+    /** the hash and the UTF-8 length of the last text looked up */
+    private long mLastHash;
+    private int mLastLength;
+
+    /**
+     * Add the literal at the given range of text if not added before.
+     *
+     * @param text  The text containing the literal.
+     * @param start The start offset of the literal.
+     * @param end   The end offset (exclusive) of the literal.
+     * @return The id of the literal, it is less than {@link #size()} before the call if the literal was added before.
+     */
+    public int add(CharSequence text, int start, int end) {
+        int id = find(text, start, end);
+        if(id >= 0) {
+            return id;
+        }
+        id = insert(mLastHash, mLastLength);
+        encode(text, start, end, mSegments[mSegmentCount - 1], mPosition - mLastLength);
+        return id;
+    }
+
+    /**
+     * Add the given literal if not added before.
+     *
+     * @param literal The literal to add.
+     * @return The id of the literal.
+     */
+    public int add(String literal) {
+        return add(literal, 0, literal.length());
+    }
+
+    /**
+     * Find the literal at the given range of text.
+     *
+     * @param text  The text containing the literal.
+     * @param start The start offset of the literal.
+     * @param end   The end offset (exclusive) of the literal.
+     * @return The id of the literal, or -1 if it was not added.
+     */
+    public int find(CharSequence text, int start, int end) {
+        long hash = hash(text, start, end);
+        int mask = mTable.length - 1;
+        int slot = (int) hash & mask;
+        int entry;
+        while((entry = mTable[slot]) != 0) {
+            int id = entry - 1;
+            if(mHashes[id] == hash && mLengths[id] == mLastLength && regionMatches(id, text, start, end)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @param id The id of the literal.
+     * @return The literal with the given id.
+     */
+    public String get(int id) {
+        checkId(id);
+        long address = mAddresses[id];
+        byte[] bytes = mSegments[(int) (address >>> 32)];
+        int offset = (int) address;
+        int end = offset + mLengths[id];
+        /** a char never takes less than one byte */
+        char[] chars = new char[mLengths[id]];
+        int count = 0;
+        while(offset < end) {
+            int b = bytes[offset++];
+            if(b >= 0) {
+                chars[count++] = (char) b;
+            } else if((b & 0xe0) == 0xc0) {
+                chars[count++] = (char) (((b & 0x1f) << 6) | (bytes[offset++] & 0x3f));
+            } else if((b & 0xf0) == 0xe0) {
+                chars[count++] = (char) (((b & 0x0f) << 12) | ((bytes[offset++] & 0x3f) << 6) | (bytes[offset++] & 0x3f));
+            } else {
+                int cp = ((b & 0x07) << 18) | ((bytes[offset++] & 0x3f) << 12) | ((bytes[offset++] & 0x3f) << 6) | (bytes[offset++] & 0x3f);
+                chars[count++] = Character.highSurrogate(cp);
+                chars[count++] = Character.lowSurrogate(cp);
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * @param id The id of the literal.
+     * @return The 64 bit hash of the literal with the given id.
+     */
+    long getHash(int id) {
+        checkId(id);
+        return mHashes[id];
+    }
+
+    /**
+     * @param id    The id of the literal.
+     * @param other The index containing the other literal.
+     * @param otherId The id of the literal in the other index.
+     * @return true if both literals are equal, the bytes are compared without decoding.
+     */
+    boolean matches(int id, LiteralIndex other, int otherId) {
+        if(mHashes[id] != other.mHashes[otherId] || mLengths[id] != other.mLengths[otherId]) {
+            return false;
+        }
+        long address = mAddresses[id];
+        byte[] bytes = mSegments[(int) (address >>> 32)];
+        int offset = (int) address;
+        long otherAddress = other.mAddresses[otherId];
+        byte[] otherBytes = other.mSegments[(int) (otherAddress >>> 32)];
+        int otherOffset = (int) otherAddress;
+        for(int i = 0; i < mLengths[id]; i++) {
+            if(bytes[offset + i] != otherBytes[otherOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Release the unused capacity once no literal is added anymore, the bytes are copied to one
+     * array of their size if they fit in it. More literals can still be added after.
+     */
+    public void trimToSize() {
+        long size = byteSize();
+        if(mSegmentCount > 1 && size <= MAX_SEGMENT_SIZE) {
+            byte[] bytes = new byte[(int) size];
+            int position = 0;
+            for(int id = 0; id < mSize; id++) {
+                long address = mAddresses[id];
+                System.arraycopy(mSegments[(int) (address >>> 32)], (int) address, bytes, position, mLengths[id]);
+                mAddresses[id] = position;
+                position += mLengths[id];
+            }
+            mSegments = new byte[][] { bytes };
+            mSegmentCount = 1;
+            mPosition = position;
+        } else if(mSegmentCount > 0 && mPosition < mSegments[mSegmentCount - 1].length) {
+            byte[] last = new byte[mPosition];
+            System.arraycopy(mSegments[mSegmentCount - 1], 0, last, 0, mPosition);
+            mSegments[mSegmentCount - 1] = last;
+        }
+        if(mSize < mAddresses.length) {
+            mAddresses = Arrays.copyOf(mAddresses, mSize);
+            mLengths = Arrays.copyOf(mLengths, mSize);
+            mHashes = Arrays.copyOf(mHashes, mSize);
+        }
+    }
+
+    /** @return the number of distinct literals added. */
+    public int size() {
+        return mSize;
+    }
+
+    /** @return the number of bytes used by the literals. */
+    public long byteSize() {
+        long size = 0;
+        for(int i = 0; i < mSegmentCount - 1; i++) {
+            size += mSegments[i].length;
+        }
+        return size + mPosition;
+    }
+
+    private void checkId(int id) {
+        if(id < 0 || id >= mSize) {
+            throw new IndexOutOfBoundsException("id: " + id + ", size: " + mSize);
+        }
+    }
+
+    /** reserve the bytes of a new literal at the end of the last byte array and return its id */
+    private int insert(long hash, int length) {
+        if(mSize == mAddresses.length) {
+            grow();
+        }
+        if(mSegmentCount == 0 || mSegments[mSegmentCount - 1].length - mPosition < length) {
+            addSegment(length);
+        }
+        int id = mSize++;
+        mAddresses[id] = ((long) (mSegmentCount - 1) << 32) | mPosition;
+        mLengths[id] = length;
+        mHashes[id] = hash;
+        mPosition += length;
+        int mask = mTable.length - 1;
+        int slot = (int) hash & mask;
+        while(mTable[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        mTable[slot] = id + 1;
+        return id;
+    }
+
+    /** add a byte array with room for at least the given length, the free bytes of the last one are left */
+    private void addSegment(int length) {
+        int size = mSegmentCount == 0 ? MIN_SEGMENT_SIZE : Math.min(mSegments[mSegmentCount - 1].length * 2, MAX_SEGMENT_SIZE);
+        if(mSegmentCount == mSegments.length) {
+            byte[][] segments = new byte[mSegmentCount * 2][];
+            System.arraycopy(mSegments, 0, segments, 0, mSegmentCount);
+            mSegments = segments;
+        }
+        mSegments[mSegmentCount++] = new byte[Math.max(size, length)];
+        mPosition = 0;
+    }
+
+    /** double the capacity and rehash, the table is kept at most half full */
+    private void grow() {
+        int capacity = Math.max(16, Integer.highestOneBit(mSize) * 2);
+        mAddresses = Arrays.copyOf(mAddresses, capacity);
+        mLengths = Arrays.copyOf(mLengths, capacity);
+        mHashes = Arrays.copyOf(mHashes, capacity);
+        mTable = new int[capacity * 2];
+        int mask = mTable.length - 1;
+        for(int id = 0; id < mSize; id++) {
+            int slot = (int) mHashes[id] & mask;
+            while(mTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            mTable[slot] = id + 1;
+        }
+    }
+
+    /**
+     * compute the 64 bit FNV-1a hash of the chars and keep it with the UTF-8 length of the text,
+     * so a lookup reads the text once before comparing.
+     */
+    private long hash(CharSequence text, int start, int end) {
+        long h = 0xcbf29ce484222325L;
+        int length = 0;
+        for(int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            h = (h ^ c) * 0x100000001b3L;
+            if(c < 0x80) {
+                length++;
+            } else if(c < 0x800) {
+                length += 2;
+            } else if(Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                /** a pair takes 4 bytes */
+                length += 4;
+                h = (h ^ text.charAt(++i)) * 0x100000001b3L;
+            } else {
+                /** other chars and the unpaired surrogates take 3 bytes, so they are kept as they are */
+                length += 3;
+            }
+        }
+        mLastLength = length;
+        mLastHash = h ^ (h >>> 32);
+        return mLastHash;
+    }
+
+    /** write the chars as UTF-8 bytes at the given offset */
+    private static void encode(CharSequence text, int start, int end, byte[] bytes, int offset) {
+        for(int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if(c < 0x80) {
+                bytes[offset++] = (byte) c;
+            } else if(c < 0x800) {
+                bytes[offset++] = (byte) (0xc0 | (c >> 6));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3f));
+            } else if(Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                bytes[offset++] = (byte) (0xf0 | (cp >> 18));
+                bytes[offset++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                bytes[offset++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                bytes[offset++] = (byte) (0x80 | (cp & 0x3f));
+            } else {
+                bytes[offset++] = (byte) (0xe0 | (c >> 12));
+                bytes[offset++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+    }
+
+    /** compare the bytes of the literal with the chars of the text, the UTF-8 lengths are already equal */
+    private boolean regionMatches(int id, CharSequence text, int start, int end) {
+        long address = mAddresses[id];
+        byte[] bytes = mSegments[(int) (address >>> 32)];
+        int offset = (int) address;
+        for(int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if(c < 0x80) {
+                if(bytes[offset++] != (byte) c) {
+                    return false;
+                }
+            } else if(c < 0x800) {
+                if(bytes[offset++] != (byte) (0xc0 | (c >> 6)) || bytes[offset++] != (byte) (0x80 | (c & 0x3f))) {
+                    return false;
+                }
+            } else if(Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                if(bytes[offset++] != (byte) (0xf0 | (cp >> 18)) || bytes[offset++] != (byte) (0x80 | ((cp >> 12) & 0x3f))
+                    || bytes[offset++] != (byte) (0x80 | ((cp >> 6) & 0x3f)) || bytes[offset++] != (byte) (0x80 | (cp & 0x3f))) {
+                    return false;
+                }
+            } else {
+                if(bytes[offset++] != (byte) (0xe0 | (c >> 12)) || bytes[offset++] != (byte) (0x80 | ((c >> 6) & 0x3f))
+                    || bytes[offset++] != (byte) (0x80 | (c & 0x3f))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
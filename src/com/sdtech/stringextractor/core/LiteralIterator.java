@@ -0,0 +1,132 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+import com.sdtech.stringextractor.ExtractedLiteral;
+import com.sdtech.stringextractor.ExtractionException;
+
+import java.io.IOException;
+
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the strings of the given files lazily, without writing anything.
+ *
+ * <p>
+ * A file is read only when the iteration reaches it, and its strings are found one by one
+ * with the scanner of the file, so the caller can stop at any time. The proposed names are
+ * numbered in the order the strings are found, and the same string in many files gets the
+ * same name, as in {@link ExtractionEngine#extract(java.util.List, java.io.File)}.
+ *
+ * <p>
+ * An error while reading a file is thrown as {@link ExtractionException}.
+ */
+final class LiteralIterator implements Iterator<ExtractedLiteral> {
+
+    private final ExtractionSession mSession;
+    private final Iterator<Path> mFiles;
+
+    /** the names of the strings found so far */
+    private final Map<String, String> mNames = new HashMap<String, String>();
+
+    /** the file being scanned, its text and scanner */
+    private Path mFile;
+    private CharBuffer mText;
+    private LiteralScanner mScanner;
+
+    /** the line of the offset mLineOffset of the text */
+    private int mLine;
+    private int mLineOffset;
+
+    /** the next literal, or null if not found yet */
+    private ExtractedLiteral mNext;
+
+    LiteralIterator(ExtractionSession session, Iterator<Path> files) {
+        mSession = session;
+        mFiles = files;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while(mNext == null) {
+            if(mScanner == null || !mScanner.find()) {
+                if(!mFiles.hasNext()) {
+                    mScanner = null;
+                    return false;
+                }
+                open(mFiles.next());
+                continue;
+            }
+            if(mScanner.isBlank())continue;
+            int offset = mScanner.valueStart();
+            String value = mText.subSequence(offset, mScanner.valueEnd()).toString();
+            String name = mNames.get(value);
+            if(name == null) {
+                name = mSession.getName(mNames.size() + 1);
+                mNames.put(value, name);
+            }
+            mNext = new ExtractedLiteral(mFile, offset, lineOf(offset), value, name);
+        }
+        return true;
+    }
+
+    @Override
+    public ExtractedLiteral next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ExtractedLiteral next = mNext;
+        mNext = null;
+        return next;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /** read the given file and start scanning it */
+    private void open(Path file) {
+        try {
+            mFile = file;
+            boolean javaCode = file.getFileName().toString().endsWith(".java");
+            mText = mSession.read(file.toFile(), javaCode);
+            mScanner = mSession.newScanner(javaCode, mText);
+            mLine = 1;
+            mLineOffset = 0;
+        } catch(IOException e) {
+            throw new ExtractionException(e);
+        }
+    }
+
+    /** count the lines up to the given offset, the offsets are increasing */
+    private int lineOf(int offset) {
+        for(int i = mLineOffset; i < offset; i++) {
+            if(mText.get(i) == '\n') {
+                mLine++;
+            }
+        }
+        mLineOffset = offset;
+        return mLine;
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+import java.util.Arrays;
+
+/**
+ * A project wide registry of the literals of multiple files, so the same literal
+ * found in many files resolves to a single string name.
+ *
+ * <p>
+ * The files are scanned in parallel, so every scan registers its literals with the index of the
+ * file and the id of the literal in that file. The registry keeps the first occurrence in the
+ * order of the files, i.e the smallest file index then the smallest id, whatever the order of
+ * the threads is. The numbers are then assigned in the order of the files and every literal
+ * gets the number of its first occurrence, so the result does not depend on the number of threads.
+ *
+ * <p>
+ * The literals are not copied: a literal is only its first occurrence, a long, and the bytes are
+ * compared in the {@link LiteralIndex} of that file. The occurrences are spread over {@link #STRIPES}
+ * open addressing tables chosen by the hash of the literal, so the threads registering different
+ * literals rarely wait for each other and no String or boxed Long is created per literal.
+ */
+final class LiteralRegistry {
+
+    /** the number of tables, a power of 2 */
+    private static final int STRIPES = 16;
+
+    /** the literals of every file by file index, the indexes are not modified once registered */
+    private final LiteralIndex[] mIndexes;
+
+    /** the tables of the literals */
+    private final Stripe[] mStripes = new Stripe[STRIPES];
+
+    /**
+     * @param files the number of files which can be registered.
+     */
+    LiteralRegistry(int files) {
+        mIndexes = new LiteralIndex[files];
+        for(int i = 0; i < STRIPES; i++) {
+            mStripes[i] = new Stripe();
+        }
+    }
+
+    /** register all the literals of the given extraction, the extraction must not be modified after */
+    void register(FileExtraction extraction, int file) {
+        LiteralIndex index = extraction.getIndex();
+        mIndexes[file] = index;
+        for(int id = 0; id < index.size(); id++) {
+            long occurrence = ((long) file << 32) | (id & 0xffffffffL);
+            Stripe stripe = stripe(index.getHash(id));
+            synchronized(stripe) {
+                int slot = stripe.find(index, id);
+                if(slot < 0) {
+                    stripe.insert(~slot, occurrence);
+                } else if(stripe.mFirst[stripe.mTable[slot] - 1] > occurrence) {
+                    /** replace only a later occurrence */
+                    stripe.mFirst[stripe.mTable[slot] - 1] = occurrence;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param index the index of the literals of a registered file.
+     * @param id    the id of the literal in the file.
+     * @return the first occurrence of the literal, or -1 if not registered
+     */
+    long getFirst(LiteralIndex index, int id) {
+        Stripe stripe = stripe(index.getHash(id));
+        synchronized(stripe) {
+            int slot = stripe.find(index, id);
+            return slot < 0 ? -1 : stripe.mFirst[stripe.mTable[slot] - 1];
+        }
+    }
+
+    /** @return the number of distinct literals */
+    int size() {
+        int size = 0;
+        for(Stripe stripe : mStripes) {
+            synchronized(stripe) {
+                size += stripe.mSize;
+            }
+        }
+        return size;
+    }
+
+    /** @return the index of the file of the given occurrence */
+    static int file(long occurrence) {
+        return (int) (occurrence >>> 32);
+    }
+
+    /** @return the id of the literal of the given occurrence */
+    static int id(long occurrence) {
+        return (int) occurrence;
+    }
+
+    /** the stripe is chosen by the high bits, the low bits choose the slot in the table */
+    private Stripe stripe(long hash) {
+        return mStripes[(int) (hash >>> 60) & (STRIPES - 1)];
+    }
+
+    /** an open addressing table of first occurrences, guarded by its own lock */
+    private final class Stripe {
+
+        /** the first occurrence of every literal of the stripe */
+        long[] mFirst = new long[16];
+
+        /** the hash table, stores the position in {@link #mFirst} + 1 or 0 for empty slot */
+        int[] mTable = new int[32];
+
+        /** the number of literals of the stripe */
+        int mSize;
+
+        /** @return the slot of the literal, or ~slot of the empty slot to insert it in */
+        int find(LiteralIndex index, int id) {
+            int mask = mTable.length - 1;
+            int slot = (int) index.getHash(id) & mask;
+            int entry;
+            while((entry = mTable[slot]) != 0) {
+                long first = mFirst[entry - 1];
+                if(mIndexes[file(first)].matches(id(first), index, id)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return ~slot;
+        }
+
+        void insert(int slot, long occurrence) {
+            if(mSize == mFirst.length) {
+                grow();
+                slot = ~find(mIndexes[file(occurrence)], id(occurrence));
+            }
+            mFirst[mSize++] = occurrence;
+            mTable[slot] = mSize;
+        }
+
+        /** double the capacity and rehash, the table is kept at most half full */
+        private void grow() {
+            mFirst = Arrays.copyOf(mFirst, mFirst.length * 2);
+            mTable = new int[mFirst.length * 2];
+            int mask = mTable.length - 1;
+            for(int i = 0; i < mSize; i++) {
+                int slot = (int) mIndexes[file(mFirst[i])].getHash(id(mFirst[i])) & mask;
+                while(mTable[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                mTable[slot] = i + 1;
+            }
+        }
+    }
+}
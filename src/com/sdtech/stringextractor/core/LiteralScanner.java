@@ -0,0 +1,112 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+/**
+ * A cursor over the extractable literals of a source text.
+ *
+ * <p>
+ * It is used the same way as {@link java.util.regex.Matcher}: call {@link #find()}
+ * until it returns false and read the offsets of the current literal in between.
+ * No object is created per literal, the offsets are kept in fields and only
+ * {@link #value()} allocates a String when the caller really need it.
+ *
+ * <p>
+ * Two spans are reported for every literal:
+ * <ul>
+ *     <li>{@link #start()} - {@link #end()} the text to replace when linking the literal.</li>
+ *     <li>{@link #valueStart()} - {@link #valueEnd()} the raw value without the qoutes.</li>
+ * </ul>
+ */
+public abstract class LiteralScanner {
+
+    /** the text we scan */
+    protected final CharSequence mText;
+
+    /** the position to continue scanning from */
+    protected int mPos;
+
+    /** span of the current literal */
+    protected int mStart;
+    protected int mEnd;
+    protected int mValueStart;
+    protected int mValueEnd;
+
+    /** indicates whether the current literal is empty or only contains spaces */
+    protected boolean mBlank;
+
+    /**
+     * Create the scanner over the given text.
+     *
+     * @param text The text to scan literals from.
+     */
+    protected LiteralScanner(CharSequence text) {
+        mText = text;
+    }
+
+    /**
+     * Move to the next literal.
+     *
+     * @return true if a literal was found, false if the end of text was reached.
+     */
+    public abstract boolean find();
+
+    /** @return the start offset of the text to replace. */
+    public int start() {
+        return mStart;
+    }
+
+    /** @return the end offset (exclusive) of the text to replace. */
+    public int end() {
+        return mEnd;
+    }
+
+    /** @return the start offset of the raw value. */
+    public int valueStart() {
+        return mValueStart;
+    }
+
+    /** @return the end offset (exclusive) of the raw value. */
+    public int valueEnd() {
+        return mValueEnd;
+    }
+
+    /** @return true if the current literal is empty or contains only spaces. */
+    public boolean isBlank() {
+        return mBlank;
+    }
+
+    /** @return the raw value of the current literal without the qoutes. */
+    public String value() {
+        return mText.subSequence(mValueStart, mValueEnd).toString();
+    }
+
+    /** set the current span and compute the blank flag */
+    protected void setSpan(int start, int end, int valueStart, int valueEnd) {
+        mStart = start;
+        mEnd = end;
+        mValueStart = valueStart;
+        mValueEnd = valueEnd;
+        mBlank = true;
+        for(int i = valueStart; i < valueEnd; i++) {
+            if(mText.charAt(i) != ' ') {
+                mBlank = false;
+                break;
+            }
+        }
+    }
+}
@@ -24,6 +24,23 @@ import com.sdtech.stringextractor.ExtractedString;
 /** A class that implements the {@link ExtractedString} methods. */
 public final class MainExtractedString extends ExtractedString {
 
+    /** indicates whether the generated class caches the strings */
+    private final boolean mCached;
+
+    /** Create the generator of the class which does not cache the strings. */
+    public MainExtractedString() {
+        this(/*cached=*/false);
+    }
+
+    /**
+     * Create the generator.
+     *
+     * @param cached indicates whether the generated class caches the strings.
+     */
+    public MainExtractedString(boolean cached) {
+        mCached = cached;
+    }
+
     @Override
     public void writeTo(File folder, String pkgName) throws IOException {
         writeToPath(folder,pkgName);
@@ -36,32 +53,147 @@ public final class MainExtractedString extends ExtractedString {
         
         extractedString += pkgName !=  "" ? "/** Generated by StringExtractor */\r\n\r\n" + pkgName + "\r\n" : "/** Generated by StringExtractor \r\n*/";
         extractedString += "\r\nimport android.content.Context;\r\n";
+        if(mCached) {
+            extractedString += "import android.content.res.Resources;\r\n";
+            extractedString += "\r\nimport java.util.Locale;\r\n";
+        }
         extractedString += "\r\n/** A helper class for retrieving the extracted strings.*/\r\n";
         extractedString += "\r\npublic final class ExtractedString {\r\n";
-        extractedString += "\r\n    /** The Context we use to retrieves the strings from xml resources. */\r\n";
-        extractedString += "\r\n    private static Context mContext;\r\n";
-        extractedString += "\r\n    /**";
-        extractedString += "\r\n     * store our context here to retrieve the strings from every class. ";
-        extractedString += "\r\n     * <p> This method need to called once from {@link Application} or {@link Activity} onCreate.";
-        extractedString += "\r\n     * ";
-        extractedString += "\r\n     * @param context      The {@link Context} to store.";
-        extractedString += "\r\n     */";
-        extractedString += "\r\n    public static void setContext(Context context){";
-        extractedString += "\r\n        mContext = context;";
-        extractedString += "\r\n    }\r\n";
-        extractedString += "\r\n    /**";
-        extractedString += "\r\n     * Retrieves our extracted string.";
-        extractedString += "\r\n     * ";
-        extractedString += "\r\n     * @param strResId the string id generated by StringExtractor.";
-        extractedString += "\r\n     * @return the extracted string if our {@link Context} not null. \"\" otherwise.";
-        extractedString += "\r\n     */";
-        extractedString += "\r\n     public static String getString(int strResId) {";
-        extractedString += "\r\n         if(mContext != null){";
-        extractedString += "\r\n             return mContext.getResources().getString(strResId);";
-        extractedString += "\r\n          }";
-        extractedString += "\r\n         return \"\";";
-        extractedString += "\r\n     }";
-        extractedString += "\r\n}";
+        if(mCached) {
+            extractedString += "\r\n    /** The Context we use to retrieves the strings from xml resources. */";
+            extractedString += "\r\n";
+            extractedString += "\r\n    private static volatile Context mContext;";
+            extractedString += "\r\n";
+            extractedString += "\r\n    /** The strings retrieved since the context was set, null until the first string is retrieved. */";
+            extractedString += "\r\n";
+            extractedString += "\r\n    private static volatile Cache mCache;";
+            extractedString += "\r\n";
+            extractedString += "\r\n    /**";
+            extractedString += "\r\n     * store our context here to retrieve the strings from every class. ";
+            extractedString += "\r\n     * <p> This method need to called once from {@link Application} or {@link Activity} onCreate.";
+            extractedString += "\r\n     * <p> The strings retrieved with the previous context are cleared.";
+            extractedString += "\r\n     * ";
+            extractedString += "\r\n     * @param context      The {@link Context} to store.";
+            extractedString += "\r\n     */";
+            extractedString += "\r\n    public static void setContext(Context context){";
+            extractedString += "\r\n        mContext = context;";
+            extractedString += "\r\n        mCache = null;";
+            extractedString += "\r\n    }";
+            extractedString += "\r\n";
+            extractedString += "\r\n    /**";
+            extractedString += "\r\n     * Retrieves our extracted string.";
+            extractedString += "\r\n     * <p> The string is retrieved from the resources once, then from the cache until the context";
+            extractedString += "\r\n     * is set again or the locale changes.";
+            extractedString += "\r\n     * ";
+            extractedString += "\r\n     * @param strResId the string id generated by StringExtractor.";
+            extractedString += "\r\n     * @return the extracted string if our {@link Context} not null. \"\" otherwise.";
+            extractedString += "\r\n     */";
+            extractedString += "\r\n     @SuppressWarnings(\"deprecation\")";
+            extractedString += "\r\n     public static String getString(int strResId) {";
+            extractedString += "\r\n         Context context = mContext;";
+            extractedString += "\r\n         if(context == null){";
+            extractedString += "\r\n             return \"\";";
+            extractedString += "\r\n         }";
+            extractedString += "\r\n         Resources resources = context.getResources();";
+            extractedString += "\r\n         Locale locale = resources.getConfiguration().locale;";
+            extractedString += "\r\n         Cache cache = mCache;";
+            extractedString += "\r\n         if(cache == null || cache.mContext != context || (locale == null ? cache.mLocale != null : !locale.equals(cache.mLocale))){";
+            extractedString += "\r\n             cache = new Cache(context, locale);";
+            extractedString += "\r\n             mCache = cache;";
+            extractedString += "\r\n         }";
+            extractedString += "\r\n         String str = cache.get(strResId);";
+            extractedString += "\r\n         if(str == null){";
+            extractedString += "\r\n             str = resources.getString(strResId);";
+            extractedString += "\r\n             cache.put(strResId, str);";
+            extractedString += "\r\n         }";
+            extractedString += "\r\n         return str;";
+            extractedString += "\r\n     }";
+            extractedString += "\r\n";
+            extractedString += "\r\n    /** A table of the strings by resource id with open addressing, a resource id is never 0. */";
+            extractedString += "\r\n    private static final class Cache {";
+            extractedString += "\r\n";
+            extractedString += "\r\n        private final Context mContext;";
+            extractedString += "\r\n        private final Locale mLocale;";
+            extractedString += "\r\n        private int[] mKeys = new int[64];";
+            extractedString += "\r\n        private String[] mValues = new String[64];";
+            extractedString += "\r\n        private int mSize;";
+            extractedString += "\r\n";
+            extractedString += "\r\n        Cache(Context context, Locale locale){";
+            extractedString += "\r\n            mContext = context;";
+            extractedString += "\r\n            mLocale = locale;";
+            extractedString += "\r\n        }";
+            extractedString += "\r\n";
+            extractedString += "\r\n        synchronized String get(int key){";
+            extractedString += "\r\n            int mask = mKeys.length - 1;";
+            extractedString += "\r\n            for(int slot = hash(key) & mask; mKeys[slot] != 0; slot = (slot + 1) & mask){";
+            extractedString += "\r\n                if(mKeys[slot] == key){";
+            extractedString += "\r\n                    return mValues[slot];";
+            extractedString += "\r\n                }";
+            extractedString += "\r\n            }";
+            extractedString += "\r\n            return null;";
+            extractedString += "\r\n        }";
+            extractedString += "\r\n";
+            extractedString += "\r\n        synchronized void put(int key, String value){";
+            extractedString += "\r\n            if((mSize + 1) * 2 > mKeys.length){";
+            extractedString += "\r\n                int[] keys = mKeys;";
+            extractedString += "\r\n                String[] values = mValues;";
+            extractedString += "\r\n                mKeys = new int[keys.length * 2];";
+            extractedString += "\r\n                mValues = new String[keys.length * 2];";
+            extractedString += "\r\n                mSize = 0;";
+            extractedString += "\r\n                for(int i = 0; i < keys.length; i++){";
+            extractedString += "\r\n                    if(keys[i] != 0){";
+            extractedString += "\r\n                        insert(keys[i], values[i]);";
+            extractedString += "\r\n                    }";
+            extractedString += "\r\n                }";
+            extractedString += "\r\n            }";
+            extractedString += "\r\n            insert(key, value);";
+            extractedString += "\r\n        }";
+            extractedString += "\r\n";
+            extractedString += "\r\n        private void insert(int key, String value){";
+            extractedString += "\r\n            int mask = mKeys.length - 1;";
+            extractedString += "\r\n            int slot = hash(key) & mask;";
+            extractedString += "\r\n            while(mKeys[slot] != 0 && mKeys[slot] != key){";
+            extractedString += "\r\n                slot = (slot + 1) & mask;";
+            extractedString += "\r\n            }";
+            extractedString += "\r\n            if(mKeys[slot] == 0){";
+            extractedString += "\r\n                mKeys[slot] = key;";
+            extractedString += "\r\n                mSize++;";
+            extractedString += "\r\n            }";
+            extractedString += "\r\n            mValues[slot] = value;";
+            extractedString += "\r\n        }";
+            extractedString += "\r\n";
+            extractedString += "\r\n        private static int hash(int key){";
+            extractedString += "\r\n            int h = key * 0x9E3779B9;";
+            extractedString += "\r\n            return h ^ (h >>> 16);";
+            extractedString += "\r\n        }";
+            extractedString += "\r\n    }";
+            extractedString += "\r\n}";
+        } else {
+            extractedString += "\r\n    /** The Context we use to retrieves the strings from xml resources. */\r\n";
+            extractedString += "\r\n    private static Context mContext;\r\n";
+            extractedString += "\r\n    /**";
+            extractedString += "\r\n     * store our context here to retrieve the strings from every class. ";
+            extractedString += "\r\n     * <p> This method need to called once from {@link Application} or {@link Activity} onCreate.";
+            extractedString += "\r\n     * ";
+            extractedString += "\r\n     * @param context      The {@link Context} to store.";
+            extractedString += "\r\n     */";
+            extractedString += "\r\n    public static void setContext(Context context){";
+            extractedString += "\r\n        mContext = context;";
+            extractedString += "\r\n    }\r\n";
+            extractedString += "\r\n    /**";
+            extractedString += "\r\n     * Retrieves our extracted string.";
+            extractedString += "\r\n     * ";
+            extractedString += "\r\n     * @param strResId the string id generated by StringExtractor.";
+            extractedString += "\r\n     * @return the extracted string if our {@link Context} not null. \"\" otherwise.";
+            extractedString += "\r\n     */";
+            extractedString += "\r\n     public static String getString(int strResId) {";
+            extractedString += "\r\n         if(mContext != null){";
+            extractedString += "\r\n             return mContext.getResources().getString(strResId);";
+            extractedString += "\r\n          }";
+            extractedString += "\r\n         return \"\";";
+            extractedString += "\r\n     }";
+            extractedString += "\r\n}";
+        }
         // write to file
         FileOutputStream fout = new FileOutputStream(new File(folder,"ExtractedString.java"));
         fout.write(extractedString.getBytes());
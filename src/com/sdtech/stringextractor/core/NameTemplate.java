@@ -0,0 +1,106 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+import java.util.Collection;
+import java.util.IllegalFormatException;
+
+/**
+ * The compiled prefix and suffix of the string names.
+ *
+ * <p>
+ * A name is <code>String.format(prefix, String.format(suffix, number))</code>. The prefix and the suffix
+ * always end with %s, so when it is their only format specifier the name is just the text of the prefix,
+ * the text of the suffix and the number, which is built without parsing the format every time.
+ * Any other format is passed to {@link String#format}.
+ */
+final class NameTemplate {
+
+    /** the prefix used if not set */
+    static final String DEFAULT_PREFIX = "extracted_string%s";
+
+    /** the suffix used if not set */
+    static final String DEFAULT_SUFFIX = "%s";
+
+    private final String mPrefix;
+    private final String mSuffix;
+
+    /** the text before the number if both formats are only a text followed by %s, null otherwise */
+    private final String mHead;
+
+    /**
+     * compile the given prefix and suffix.
+     *
+     * @param prefix the prefix, {@link #DEFAULT_PREFIX} if null. %s is appended if it does not end with.
+     * @param suffix the suffix, {@link #DEFAULT_SUFFIX} if null. %s is appended if it does not end with.
+     */
+    NameTemplate(String prefix, String suffix) {
+        mPrefix = normalize(prefix, DEFAULT_PREFIX);
+        mSuffix = normalize(suffix, DEFAULT_SUFFIX);
+        String prefixHead = mPrefix.substring(0, mPrefix.length() - 2);
+        String suffixHead = mSuffix.substring(0, mSuffix.length() - 2);
+        mHead = prefixHead.indexOf('%') < 0 && suffixHead.indexOf('%') < 0 ? prefixHead + suffixHead : null;
+    }
+
+    /** @return the name of the string with the given number */
+    String getName(int number) {
+        if(mHead != null) {
+            return mHead.concat(Integer.toString(number));
+        }
+        return String.format(mPrefix, String.format(mSuffix, number));
+    }
+
+    /**
+     * @return the biggest number of the given names which are generated by this template, 0 if none.
+     */
+    int getMaxNumber(Collection<String> names) {
+        String head = mHead;
+        String tail = "";
+        if(head == null) {
+            /** the text around the number, if the formats accept a text for it */
+            String marked;
+            try {
+                marked = String.format(mPrefix, String.format(mSuffix, "\0"));
+            } catch(IllegalFormatException e) {
+                return 0;
+            }
+            int marker = marked.indexOf('\0');
+            head = marked.substring(0, marker);
+            tail = marked.substring(marker + 1);
+        }
+        int max = 0;
+        for(String name : names) {
+            int end = name.length() - tail.length();
+            /** at most 9 digits, so the number fits an int */
+            if(end <= head.length() || end - head.length() > 9 || !name.startsWith(head) || !name.endsWith(tail))continue;
+            int number = 0;
+            for(int i = head.length(); i < end && number >= 0; i++) {
+                char c = name.charAt(i);
+                number = c >= '0' && c <= '9' ? number * 10 + (c - '0') : -1;
+            }
+            max = Math.max(max, number);
+        }
+        return max;
+    }
+
+    private static String normalize(String format, String defaultFormat) {
+        if(format == null) {
+            return defaultFormat;
+        }
+        return format.endsWith("%s") ? format : format + "%s";
+    }
+}
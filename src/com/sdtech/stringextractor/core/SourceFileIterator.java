@@ -0,0 +1,163 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+import com.sdtech.stringextractor.ExtractionException;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the java and xml files of a directory and its sub directories lazily.
+ *
+ * <p>
+ * A directory is listed only when the iteration reaches it. The files and the directories are
+ * checked with {@link SourceWalker#accept(Path, boolean)}, and the entries of a directory are sorted
+ * as if they were full paths, so the files are iterated in the same order and with the same
+ * rules as {@link SourceWalker#walk()} finds them. The file is iterated itself if a file is given
+ * instead of a directory.
+ */
+final class SourceFileIterator implements Iterator<Path> {
+
+    /**
+     * sorts the entries of a directory like {@link File#compareTo} sorts their paths, a directory
+     * is compared with a separator after its name because its files are compared with their path.
+     */
+    private static final Comparator<Entry> ORDER = new Comparator<Entry>() {
+
+        @Override
+        public int compare(Entry a, Entry b) {
+            return File.separatorChar == '\\' ? a.mKey.compareToIgnoreCase(b.mKey) : a.mKey.compareTo(b.mKey);
+        }
+    };
+
+    /** the entries which are not iterated yet, the next one is first */
+    private final Deque<Entry> mPending = new ArrayDeque<Entry>();
+
+    /** the rules of the files and directories to iterate, null if a single file is iterated */
+    private final SourceWalker mWalker;
+
+    /** the next file, or null if not found yet */
+    private Path mNext;
+
+    /**
+     * iterate the given file, or the files of the given directory.
+     *
+     * @param start the file or directory to iterate, never skipped.
+     */
+    SourceFileIterator(Path start) {
+        this(start, Files.isDirectory(start) ? new SourceWalker(start.toFile()) : null);
+    }
+
+    /**
+     * iterate the files of the directory of the given walker with its rules.
+     *
+     * @param start  the directory of the walker.
+     * @param walker the rules of the files and directories to iterate.
+     */
+    SourceFileIterator(Path start, SourceWalker walker) {
+        mWalker = walker;
+        mPending.push(new Entry(start, walker != null));
+    }
+
+    @Override
+    public boolean hasNext() {
+        while(mNext == null && !mPending.isEmpty()) {
+            Entry entry = mPending.pop();
+            if(entry.mDirectory) {
+                List<Entry> children = list(entry.mPath);
+                /** push in reverse so the first child is popped first */
+                for(int i = children.size() - 1; i >= 0; i--) {
+                    mPending.push(children.get(i));
+                }
+            } else if(SourceWalker.isSource(entry.mPath)) {
+                mNext = entry.mPath;
+            }
+        }
+        return mNext != null;
+    }
+
+    @Override
+    public Path next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Path next = mNext;
+        mNext = null;
+        return next;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /** list the directories and the regular files of the given directory which are accepted, the links are not followed */
+    private List<Entry> list(Path dir) {
+        List<Entry> children = new ArrayList<Entry>();
+        try {
+            DirectoryStream<Path> stream = Files.newDirectoryStream(dir);
+            try {
+                for(Path child : stream) {
+                    BasicFileAttributes attrs = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    if(!attrs.isDirectory() && !attrs.isRegularFile())continue;
+                    if(mWalker.accept(child, attrs.isDirectory())) {
+                        children.add(new Entry(child, attrs.isDirectory()));
+                    }
+                }
+            } finally {
+                stream.close();
+            }
+        } catch(IOException e) {
+            throw new ExtractionException(e);
+        }
+        Collections.sort(children, ORDER);
+        return children;
+    }
+
+    /** a file or a directory to iterate */
+    private static final class Entry {
+
+        final Path mPath;
+        final boolean mDirectory;
+
+        /** the name to sort with */
+        final String mKey;
+
+        Entry(Path path, boolean directory) {
+            mPath = path;
+            mDirectory = directory;
+            Path name = path.getFileName();
+            mKey = (name != null ? name.toString() : "") + (directory ? File.separator : "");
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Reads source files through a {@link FileChannel} and decodes them straight into a {@link CharBuffer}.
+ *
+ * <p>
+ * Every file is read into a single heap buffer of the file size. The files are not memory mapped:
+ * the bytes are decoded right away, and a mapping lives until it is garbage collected, which prevents
+ * the file from being renamed or truncated when it is written back on Windows.
+ * A byte order mark at the start of the file overrides the charset given to this reader.
+ *
+ * <p>
+ * The decoding fails on malformed input instead of replacing it, so a file read
+ * with a wrong charset is never written back corrupted.
+ *
+ * <p>
+ * The reader can also compute a SHA-1 hash of the file content from the same bytes,
+ * which is used to detect the files that did not change since the last run.
+ *
+ * <p>
+ * Given a {@link BytePrefilter}, the bytes of a file are searched before decoding, and a file
+ * which has certainly no string is not decoded at all, see {@link SourceText#isSkipped()}.
+ */
+public final class SourceReader {
+
+    private static final byte[] NO_BOM = new byte[0];
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final byte[] UTF16BE_BOM = {(byte) 0xFE, (byte) 0xFF};
+    private static final byte[] UTF16LE_BOM = {(byte) 0xFF, (byte) 0xFE};
+
+    /** the charset to decode files without byte order mark */
+    private final Charset mCharset;
+
+    /** indicates whether to compute the hash of the files */
+    private final boolean mHash;
+
+    /**
+     * Create the reader.
+     *
+     * @param charset The charset of the files without byte order mark, UTF-8 is used if null.
+     */
+    public SourceReader(Charset charset) {
+        this(charset, /*hash=*/false);
+    }
+
+    /**
+     * Create the reader.
+     *
+     * @param charset The charset of the files without byte order mark, UTF-8 is used if null.
+     * @param hash    if true the hash of every file read is computed, see {@link SourceText#getHash()}.
+     */
+    public SourceReader(Charset charset, boolean hash) {
+        mCharset = charset != null ? charset : Charset.forName("UTF-8");
+        mHash = hash;
+    }
+
+    /** @return the charset to decode files without byte order mark. */
+    public Charset getCharset() {
+        return mCharset;
+    }
+
+    /**
+     * Read and decode the given file.
+     *
+     * @param file The file to read.
+     * @return The decoded text of the file.
+     * @throws IOException if the file cannot be read or is not valid in its charset.
+     */
+    public SourceText read(File file) throws IOException {
+        return read(file, null, false);
+    }
+
+    /**
+     * Read the given file and decode it, unless the prefilter rejects its bytes.
+     *
+     * @param prefilter the prefilter to search the bytes with, or null to decode every file.
+     * @param javaCode  true if the file is java code, false if it is xml code.
+     */
+    SourceText read(File file, BytePrefilter prefilter, boolean javaCode) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            return decode(readBytes(in.getChannel()), prefilter, javaCode);
+        } finally {
+            in.close();
+        }
+    }
+
+    /** read the whole content of the channel */
+    private static ByteBuffer readBytes(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if(size > Integer.MAX_VALUE) {
+            throw new IOException("file is too big to read: " + size + " bytes.");
+        }
+        ByteBuffer bytes = ByteBuffer.allocate((int) size);
+        while(bytes.hasRemaining()) {
+            if(channel.read(bytes) < 0) {
+                throw new EOFException("file was truncated while reading.");
+            }
+        }
+        bytes.flip();
+        return bytes;
+    }
+
+    /** detect the byte order mark and decode the bytes */
+    SourceText decode(ByteBuffer bytes) throws IOException {
+        return decode(bytes, null, false);
+    }
+
+    /** detect the byte order mark, then decode the bytes if the prefilter accepts them */
+    private SourceText decode(ByteBuffer bytes, BytePrefilter prefilter, boolean javaCode) throws IOException {
+        Charset charset = mCharset;
+        byte[] bom = NO_BOM;
+        if(startsWith(bytes, UTF8_BOM)) {
+            charset = Charset.forName("UTF-8");
+            bom = UTF8_BOM;
+        } else if(startsWith(bytes, UTF16BE_BOM)) {
+            charset = Charset.forName("UTF-16BE");
+            bom = UTF16BE_BOM;
+        } else if(startsWith(bytes, UTF16LE_BOM)) {
+            charset = Charset.forName("UTF-16LE");
+            bom = UTF16LE_BOM;
+        }
+        String hash = mHash ? hash(bytes) : null;
+        bytes.position(bytes.position() + bom.length);
+        /** the prefilter searches the bytes of the charset of the session, not of a UTF-16 byte order mark */
+        boolean filtered = prefilter != null && (bom == NO_BOM || bom == UTF8_BOM);
+        if(filtered && !prefilter.accept(bytes, javaCode)) {
+            return new SourceText(CharBuffer.allocate(0), charset, bom, hash, /*skipped=*/true);
+        }
+        CharBuffer text = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT)
+            .decode(bytes);
+        return new SourceText(text, charset, bom, hash);
+    }
+
+    /**
+     * Compute the SHA-1 hash of the remaining bytes of the buffers, without moving their positions.
+     *
+     * @param parts The bytes to hash, in order.
+     * @return The hash as hex string.
+     */
+    public static String hash(ByteBuffer... parts) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch(NoSuchAlgorithmException e) {
+            /** every java platform supports SHA-1 */
+            throw new IllegalStateException(e);
+        }
+        for(ByteBuffer bytes : parts) {
+            digest.update(bytes.duplicate());
+        }
+        StringBuilder sb = new StringBuilder(40);
+        for(byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static boolean startsWith(ByteBuffer bytes, byte[] prefix) {
+        if(bytes.remaining() < prefix.length) {
+            return false;
+        }
+        for(int i = 0; i < prefix.length; i++) {
+            if(bytes.get(bytes.position() + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
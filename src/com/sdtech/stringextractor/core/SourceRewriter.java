@@ -0,0 +1,93 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+import java.nio.CharBuffer;
+
+/**
+ * Rewrites a source text by splicing the replacement of every recorded span in a single pass.
+ *
+ * <p>
+ * The spans are recorded while scanning, in increasing order and without overlapping,
+ * together with the id of the literal in {@link LiteralIndex}. Only the recorded spans
+ * are replaced, so the same text at a place the scanner did not match is left as is.
+ */
+public final class SourceRewriter {
+
+    /** start, end and id of every span */
+    private int[] mSpans = new int[48];
+
+    /** the number of ints used in mSpans */
+    private int mLength;
+
+    /**
+     * Record the span of a literal to replace.
+     *
+     * @param start The start offset of the text to replace.
+     * @param end   The end offset (exclusive) of the text to replace.
+     * @param id    The id of the literal, used to find its replacement.
+     */
+    public void add(int start, int end, int id) {
+        if(mLength + 3 > mSpans.length) {
+            int[] spans = new int[mSpans.length * 2];
+            System.arraycopy(mSpans, 0, spans, 0, mLength);
+            mSpans = spans;
+        }
+        mSpans[mLength++] = start;
+        mSpans[mLength++] = end;
+        mSpans[mLength++] = id;
+    }
+
+    /** @return the number of recorded spans. */
+    public int size() {
+        return mLength / 3;
+    }
+
+    /**
+     * Build the rewritten text.
+     *
+     * @param text         The original text the spans was recorded from.
+     * @param replacements The replacement of every literal by id.
+     * @return The text with every recorded span replaced.
+     */
+    public CharSequence rewrite(CharSequence text, String[] replacements) {
+        /** compute the exact size of the result so the builder never grows */
+        int size = text.length();
+        for(int i = 0; i < mLength; i += 3) {
+            size += replacements[mSpans[i + 2]].length() - (mSpans[i + 1] - mSpans[i]);
+        }
+        StringBuilder sb = new StringBuilder(size);
+        int last = 0;
+        for(int i = 0; i < mLength; i += 3) {
+            append(sb, text, last, mSpans[i]);
+            sb.append(replacements[mSpans[i + 2]]);
+            last = mSpans[i + 1];
+        }
+        append(sb, text, last, text.length());
+        return sb;
+    }
+
+    /** append the range of text, copying the backing array of a buffer at once */
+    private static void append(StringBuilder sb, CharSequence text, int start, int end) {
+        if(text instanceof CharBuffer && ((CharBuffer) text).hasArray()) {
+            CharBuffer buffer = (CharBuffer) text;
+            sb.append(buffer.array(), buffer.arrayOffset() + buffer.position() + start, end - start);
+        } else {
+            sb.append(text, start, end);
+        }
+    }
+}
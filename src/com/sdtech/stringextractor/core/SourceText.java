@@ -0,0 +1,110 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * The decoded text of a source file, with the charset and the byte order mark it was read with.
+ *
+ * <p>
+ * The text is written back with the same charset and byte order mark.
+ *
+ * @see SourceReader
+ */
+public final class SourceText {
+
+    private final CharBuffer mText;
+    private final Charset mCharset;
+    private final byte[] mBom;
+
+    /** the hash of the file content, null if not computed */
+    private String mHash;
+
+    /** indicates whether the file was not decoded because it has no string */
+    private final boolean mSkipped;
+
+    SourceText(CharBuffer text, Charset charset, byte[] bom, String hash) {
+        this(text, charset, bom, hash, /*skipped=*/false);
+    }
+
+    SourceText(CharBuffer text, Charset charset, byte[] bom, String hash, boolean skipped) {
+        mText = text;
+        mCharset = charset;
+        mBom = bom;
+        mHash = hash;
+        mSkipped = skipped;
+    }
+
+    /** @return the decoded text, without the byte order mark, empty if {@link #isSkipped()}. */
+    public CharBuffer getText() {
+        return mText;
+    }
+
+    /** @return the charset the text was decoded with. */
+    public Charset getCharset() {
+        return mCharset;
+    }
+
+    /** @return true if the file starts with a byte order mark. */
+    public boolean hasBom() {
+        return mBom.length > 0;
+    }
+
+    /** @return true if the file was not decoded because the prefilter found no string in its bytes. */
+    public boolean isSkipped() {
+        return mSkipped;
+    }
+
+    /**
+     * @return the SHA-1 hash of the file content as hex string, or null if the reader did not compute it.
+     * After {@link #write(File, CharSequence)} it is the hash of the written content.
+     */
+    public String getHash() {
+        return mHash;
+    }
+
+    /**
+     * Encode and write the given text to file with the same charset and byte order mark of this text.
+     *
+     * @param file The file to write.
+     * @param text The text to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(File file, CharSequence text) throws IOException {
+        ByteBuffer bytes = mCharset.newEncoder().encode(CharBuffer.wrap(text));
+        if(mHash != null) {
+            mHash = SourceReader.hash(ByteBuffer.wrap(mBom), bytes);
+        }
+        FileOutputStream fout = new FileOutputStream(file);
+        try {
+            fout.write(mBom);
+            /** a channel may write less than the remaining bytes */
+            while(bytes.hasRemaining()) {
+                fout.getChannel().write(bytes);
+            }
+        } finally {
+            fout.close();
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.sdtech.stringextractor.core;
+
+import com.sdtech.stringextractor.ExtractionException;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the java and xml files of a directory tree.
+ *
+ * <p>
+ * The tree is walked once with {@link Files#walkFileTree}, and a directory which is excluded is
+ * pruned with all its sub directories before they are listed. The directories of
+ * {@link #DEFAULT_EXCLUDED_DIRECTORIES} are always pruned unless {@link #setDefaultExcludes(boolean)}
+ * is disabled, and the rules of the <code>.gitignore</code> files found in the tree are applied
+ * to the directories below them.
+ *
+ * <p>
+ * The include and exclude globs use the syntax of {@link FileSystem#getPathMatcher(String)}.
+ * A glob without a slash matches the name of a file or a directory, for example <code>*Test.java</code>,
+ * otherwise it matches the path relative to the directory, for example <code>app/src/test/**</code>.
+ * A file is found if it is a java or xml file, it matches an include glob, or there is no include glob,
+ * and it does not match an exclude glob.
+ */
+public final class SourceWalker {
+
+    /** the names of the directories which only contain build outputs, caches or generated files */
+    public static final Set<String> DEFAULT_EXCLUDED_DIRECTORIES = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(
+        ".git", ".gradle", ".idea", ".svn", "build", "generated", "node_modules")));
+
+    /** the files to find */
+    private static final String[] EXTENSIONS = { ".java", ".xml" };
+
+    /** the directory to walk */
+    private final Path mDirectory;
+
+    private final List<Glob> mIncludes = new ArrayList<Glob>();
+    private final List<Glob> mExcludes = new ArrayList<Glob>();
+
+    /** indicates whether the .gitignore files are applied */
+    private boolean mGitIgnore = true;
+
+    /** indicates whether the default excluded directories are pruned */
+    private boolean mDefaultExcludes = true;
+
+    /** the rules of the .gitignore file of every directory checked by {@link #accept(Path, boolean)}, null if none */
+    private final Map<Path, IgnoreRules> mIgnoreCache = new HashMap<Path, IgnoreRules>();
+
+    /**
+     * Create the walker of the given directory.
+     *
+     * @param directory the directory to find the files of.
+     */
+    public SourceWalker(File directory) {
+        mDirectory = directory.getAbsoluteFile().toPath().normalize();
+    }
+
+    /**
+     * Only find the files which match the given glob, or any other include glob.
+     *
+     * @param glob the glob of the name or the relative path of the files.
+     */
+    public void addInclude(String glob) {
+        mIncludes.add(new Glob(mDirectory.getFileSystem(), glob));
+    }
+
+    /**
+     * Skip the files and the directories which match the given glob.
+     * An excluded directory is not walked at all.
+     *
+     * @param glob the glob of the name or the relative path of the files or directories.
+     */
+    public void addExclude(String glob) {
+        mExcludes.add(new Glob(mDirectory.getFileSystem(), glob));
+    }
+
+    /** @return the directory to walk */
+    public File getDirectory() {
+        return mDirectory.toFile();
+    }
+
+    /** Set whether the rules of the .gitignore files are applied, true by default. */
+    public void setGitIgnore(boolean gitIgnore) {
+        mGitIgnore = gitIgnore;
+    }
+
+    /** Set whether the directories of {@link #DEFAULT_EXCLUDED_DIRECTORIES} are pruned, true by default. */
+    public void setDefaultExcludes(boolean defaultExcludes) {
+        mDefaultExcludes = defaultExcludes;
+    }
+
+    /**
+     * Walk the directory and find the files.
+     *
+     * @return the found files sorted by path, so the strings are always numbered in the same order.
+     * @throws ExtractionException if the directory cannot be walked.
+     */
+    public List<File> walk() throws ExtractionException {
+        final List<File> found = new ArrayList<File>();
+        /** the rules of the .gitignore files of the current directory and its parents */
+        final Deque<IgnoreRules> ignores = new ArrayDeque<IgnoreRules>();
+        try {
+            Files.walkFileTree(mDirectory, new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    if(!dir.equals(mDirectory) && isExcluded(dir, true, ignores)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    if(mGitIgnore) {
+                        IgnoreRules rules = IgnoreRules.read(dir);
+                        if(rules != null) {
+                            ignores.addLast(rules);
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+                    if(!ignores.isEmpty() && ignores.peekLast().getDirectory().equals(dir)) {
+                        ignores.removeLast();
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                    if(attrs.isRegularFile() && isSource(path) && isIncluded(path) && !isExcluded(path, false, ignores)) {
+                        found.add(path.toFile());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path path, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch(IOException e) {
+            throw new ExtractionException(e);
+        }
+        Collections.sort(found);
+        return found;
+    }
+
+    /**
+     * Check a single file or directory of the tree with the same rules as {@link #walk()}, including the
+     * exclusion of its parent directories, so a watcher finds the same files as a walk.
+     *
+     * <p>
+     * The .gitignore files are read once per directory, call {@link #reloadIgnoreRules()} when one changes.
+     *
+     * @param path      the file or the directory, it may not exist anymore.
+     * @param directory true if the path is a directory.
+     * @return true if a walk would find the file or walk the directory.
+     * @throws IOException if a .gitignore file cannot be read.
+     */
+    public boolean accept(Path path, boolean directory) throws IOException {
+        path = path.toAbsolutePath().normalize();
+        if(path.equals(mDirectory)) {
+            return directory;
+        }
+        if(!path.startsWith(mDirectory)) {
+            return false;
+        }
+        Deque<IgnoreRules> ignores = new ArrayDeque<IgnoreRules>();
+        addIgnoreRules(mDirectory, ignores);
+        Path relative = mDirectory.relativize(path);
+        Path current = mDirectory;
+        for(int i = 0; i < relative.getNameCount() - 1; i++) {
+            current = current.resolve(relative.getName(i));
+            if(isExcluded(current, true, ignores)) {
+                return false;
+            }
+            addIgnoreRules(current, ignores);
+        }
+        if(directory) {
+            return !isExcluded(path, true, ignores);
+        }
+        return isSource(path) && isIncluded(path) && !isExcluded(path, false, ignores);
+    }
+
+    /** Forget the .gitignore files read by {@link #accept(Path, boolean)}, so they are read again. */
+    public void reloadIgnoreRules() {
+        mIgnoreCache.clear();
+    }
+
+    /** add the rules of the .gitignore file of the given directory if any */
+    private void addIgnoreRules(Path dir, Deque<IgnoreRules> ignores) throws IOException {
+        if(!mGitIgnore) {
+            return;
+        }
+        IgnoreRules rules;
+        if(mIgnoreCache.containsKey(dir)) {
+            rules = mIgnoreCache.get(dir);
+        } else {
+            rules = IgnoreRules.read(dir);
+            mIgnoreCache.put(dir, rules);
+        }
+        if(rules != null) {
+            ignores.addLast(rules);
+        }
+    }
+
+    /** @return true if the name of the given file ends with the extension of a java or xml file */
+    public static boolean isSource(Path path) {
+        String name = path.getFileName().toString();
+        for(String extension : EXTENSIONS) {
+            if(name.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return true if the given directory is one of {@link #DEFAULT_EXCLUDED_DIRECTORIES} */
+    public static boolean isDefaultExcluded(Path dir) {
+        Path name = dir.getFileName();
+        return name != null && DEFAULT_EXCLUDED_DIRECTORIES.contains(name.toString());
+    }
+
+    private boolean isIncluded(Path file) {
+        if(mIncludes.isEmpty()) {
+            return true;
+        }
+        for(Glob glob : mIncludes) {
+            if(glob.matches(mDirectory, file)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isExcluded(Path path, boolean directory, Deque<IgnoreRules> ignores) {
+        if(directory && mDefaultExcludes && isDefaultExcluded(path)) {
+            return true;
+        }
+        for(Glob glob : mExcludes) {
+            if(glob.matches(mDirectory, path)) {
+                return true;
+            }
+        }
+        /** the rules of the deepest .gitignore file win */
+        Boolean ignored = null;
+        for(IgnoreRules rules : ignores) {
+            Boolean match = rules.match(path, directory);
+            if(match != null) {
+                ignored = match;
+            }
+        }
+        return ignored != null && ignored.booleanValue();
+    }
+
+    /** an include or exclude glob */
+    private static final class Glob {
+
+        private final PathMatcher mMatcher;
+
+        /** true if the glob matches the relative path, otherwise the name */
+        private final boolean mRelative;
+
+        Glob(FileSystem fs, String glob) {
+            mMatcher = fs.getPathMatcher("glob:" + glob);
+            mRelative = glob.indexOf('/') >= 0;
+        }
+
+        boolean matches(Path directory, Path path) {
+            return mMatcher.matches(mRelative ? directory.relativize(path) : path.getFileName());
+        }
+    }
+}
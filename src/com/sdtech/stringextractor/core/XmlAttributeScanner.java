@@ -0,0 +1,184 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sdtech.stringextractor.core;
+
+/**
+ * A streaming tokenizer that finds the values of extractable xml attributes.
+ *
+ * <p>
+ * The text is walked once, only the start tags are tokenized into attributes
+ * and every attribute name is looked up in the given {@link AttributeSet}.
+ * Comments, CDATA sections, processing instructions and doctype are skipped.
+ * Both double and single qouted values are supported and a value may span
+ * multiple lines.
+ *
+ * <p>
+ * A value which starts with '@' or '?' is a reference and is not reported.
+ * The replace span and the value span of a literal are the same, the qoutes are not included.
+ */
+public final class XmlAttributeScanner extends LiteralScanner {
+
+    /** the attributes to report */
+    private final AttributeSet mAttributes;
+
+    /** indicates whether we are between the attributes of a start tag */
+    private boolean mInTag;
+
+    /**
+     * Create the scanner over the given xml code.
+     *
+     * @param text       The xml code to scan.
+     * @param attributes The attribute names to report the values of.
+     */
+    public XmlAttributeScanner(CharSequence text, AttributeSet attributes) {
+        super(text);
+        mAttributes = attributes;
+    }
+
+    @Override
+    public boolean find() {
+        final CharSequence text = mText;
+        final int length = text.length();
+        int i = mPos;
+        while(i < length) {
+            if(mInTag) {
+                char c = text.charAt(i);
+                if(c == '>') {
+                    mInTag = false;
+                    i++;
+                    continue;
+                }
+                if(c == '/' || isWhitespace(c)) {
+                    i++;
+                    continue;
+                }
+                /** attribute name */
+                int nameStart = i;
+                while(i < length && !isNameEnd(text.charAt(i))) {
+                    i++;
+                }
+                int nameEnd = i;
+                i = skipWhitespace(i);
+                if(i >= length || text.charAt(i) != '=') {
+                    /** attribute without value, not a valid xml */
+                    continue;
+                }
+                i = skipWhitespace(i + 1);
+                if(i >= length) {
+                    break;
+                }
+                char quote = text.charAt(i);
+                if(quote != '"' && quote != '\'') {
+                    /** unqouted value, skip it */
+                    while(i < length && !isWhitespace(text.charAt(i)) && text.charAt(i) != '>') {
+                        i++;
+                    }
+                    continue;
+                }
+                int valueStart = i + 1;
+                int valueEnd = indexOf(quote, valueStart);
+                if(valueEnd < 0) {
+                    break;
+                }
+                i = valueEnd + 1;
+                if(nameEnd > nameStart && mAttributes.contains(text, nameStart, nameEnd)) {
+                    if(valueEnd > valueStart) {
+                        char first = text.charAt(valueStart);
+                        if(first == '@' || first == '?') {
+                            continue;
+                        }
+                    }
+                    mPos = i;
+                    setSpan(valueStart, valueEnd, valueStart, valueEnd);
+                    return true;
+                }
+            } else {
+                i = indexOf('<', i);
+                if(i < 0) {
+                    break;
+                }
+                if(startsWith("<!--", i)) {
+                    i = skipPast("-->", i + 4);
+                } else if(startsWith("<![CDATA[", i)) {
+                    i = skipPast("]]>", i + 9);
+                } else if(startsWith("<?", i)) {
+                    i = skipPast("?>", i + 2);
+                } else if(startsWith("<!", i) || startsWith("</", i)) {
+                    i = skipPast(">", i + 2);
+                } else {
+                    /** start tag, skip the tag name */
+                    i++;
+                    while(i < length && !isNameEnd(text.charAt(i))) {
+                        i++;
+                    }
+                    mInTag = true;
+                }
+            }
+        }
+        mPos = length;
+        return false;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private static boolean isNameEnd(char c) {
+        return isWhitespace(c) || c == '=' || c == '>' || c == '/';
+    }
+
+    private int skipWhitespace(int i) {
+        final int length = mText.length();
+        while(i < length && isWhitespace(mText.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private int indexOf(char c, int from) {
+        final int length = mText.length();
+        for(int i = from; i < length; i++) {
+            if(mText.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean startsWith(String s, int from) {
+        if(from + s.length() > mText.length()) {
+            return false;
+        }
+        for(int i = 0; i < s.length(); i++) {
+            if(mText.charAt(from + i) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** return the index after the given terminator or the text length if not found */
+    private int skipPast(String terminator, int from) {
+        final int length = mText.length();
+        for(int i = from; i <= length - terminator.length(); i++) {
+            if(startsWith(terminator, i)) {
+                return i + terminator.length();
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,296 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.sdtech.stringextractor.terminal;
+
+import com.sdtech.stringextractor.ExtractedLiteral;
+import com.sdtech.stringextractor.ExtractionConfig;
+import com.sdtech.stringextractor.core.ExtractionCache;
+import com.sdtech.stringextractor.core.ExtractionEngine;
+import com.sdtech.stringextractor.core.ExtractionSession;
+import com.sdtech.stringextractor.core.JsonStrings;
+import com.sdtech.stringextractor.core.SourceWalker;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+
+import java.nio.file.Paths;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A long lived server which keeps a warm {@link ExtractionSession} and answers json requests, one per line.
+ *
+ * <p>
+ * The requests are read from the input and handled concurrently, and the responses are written
+ * to the output as json lines which echo the <code>id</code> of their request. The requests are:
+ * <pre>
+ * {"id": 1, "op": "scan", "path": "app/src/Main.java"}
+ * {"id": 2, "op": "extract", "files": ["app/src/Main.java"], "xml": "app/res/values/strings.xml", "manifest": "strings.manifest"}
+ * {"id": 3, "op": "extract", "path": "app", "xml": "app/res/values/strings.xml"}
+ * {"id": 4, "op": "report"}
+ * </pre>
+ * A scan streams a line for every string found, <code>{"id":1,"file":...,"line":...,"offset":...,"value":...,"name":...}</code>,
+ * and every request ends with a line which has <code>"done":true</code>, or with <code>"error"</code> if it failed.
+ * The server stops when the input ends, after the running requests are done.
+ *
+ * <p>
+ * The extractions of the same xml file are done one after the other, and the cache of a manifest
+ * is kept in memory between the requests. With a manifest, the <code>files</code> of a request are
+ * extracted and the strings of the other files in the manifest are kept, while the files of a
+ * <code>path</code> replace all the files of the manifest. While serving, {@link System#out} is redirected to
+ * {@link System#err} so the progress messages of the extraction do not mix with the responses.
+ */
+public final class ExtractionServer {
+
+    private final ExtractionSession mSession;
+    private final int mThreads;
+
+    /** the engine of the extractions, which share the threads of a single pool while serving */
+    private ExtractionEngine mEngine;
+
+    /** the locks of the xml files being extracted */
+    private final ConcurrentMap<File, Object> mXmlLocks = new ConcurrentHashMap<File, Object>();
+
+    /** the caches of the manifests by file */
+    private final ConcurrentMap<File, ExtractionCache> mCaches = new ConcurrentHashMap<File, ExtractionCache>();
+
+    private final long mStartTime = System.currentTimeMillis();
+    private final AtomicLong mRequests = new AtomicLong();
+    private final AtomicLong mErrors = new AtomicLong();
+    private final AtomicLong mLiteralsScanned = new AtomicLong();
+    private final AtomicLong mStringsExtracted = new AtomicLong();
+    private final AtomicLong mBusyNanos = new AtomicLong();
+
+    /** the output of the responses */
+    private Writer mOut;
+
+    /**
+     * Create the server.
+     *
+     * @param config  the options of every extraction.
+     * @param threads the number of requests handled at the same time, and of threads shared by their extractions.
+     *                the number of available processors is used if less than 1.
+     */
+    public ExtractionServer(ExtractionConfig config, int threads) {
+        mThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        mSession = new ExtractionSession(config);
+    }
+
+    /**
+     * Read the requests from the given input and write the responses to the given output until the input ends.
+     *
+     * @param in  the input of the json requests, one per line, UTF-8.
+     * @param out the output of the json responses, one per line, UTF-8.
+     * @throws IOException if the input cannot be read or the output cannot be written.
+     */
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        PrintStream console = System.out;
+        System.setOut(System.err);
+        mOut = new OutputStreamWriter(out, "UTF-8");
+        ExecutorService executor = Executors.newFixedThreadPool(mThreads);
+        /** a pool per extraction would run threads x threads workers with concurrent requests */
+        ExecutorService extractor = Executors.newFixedThreadPool(mThreads);
+        mEngine = new ExtractionEngine(mSession, extractor);
+        try {
+            respond(new StringBuilder("{\"ready\":true}"));
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(line.trim().isEmpty())continue;
+                final String request = line;
+                executor.execute(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        handle(request);
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            extractor.shutdownNow();
+            System.setOut(console);
+        }
+    }
+
+    /** handle a single request and write its responses */
+    private void handle(String line) {
+        long start = System.nanoTime();
+        mRequests.incrementAndGet();
+        Object id = null;
+        try {
+            Map<String, Object> request = JsonLine.parseObject(line);
+            id = request.get("id");
+            String op = getString(request, "op");
+            if("scan".equals(op)) {
+                scan(id, request, start);
+            } else if("extract".equals(op)) {
+                extract(id, request, start);
+            } else if("report".equals(op)) {
+                report(id);
+            } else {
+                throw new IllegalArgumentException("unknown op: " + op);
+            }
+        } catch(Exception e) {
+            mErrors.incrementAndGet();
+            StringBuilder json = begin(id).append(",\"error\":");
+            JsonStrings.append(json, String.valueOf(e.getMessage() != null ? e.getMessage() : e));
+            respond(json.append('}'));
+        } finally {
+            mBusyNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /** stream the strings of the file or directory of the request */
+    private void scan(Object id, Map<String, Object> request, long start) {
+        Iterator<ExtractedLiteral> literals = mSession.scan(Paths.get(getString(request, "path")));
+        int count = 0;
+        while(literals.hasNext()) {
+            ExtractedLiteral literal = literals.next();
+            StringBuilder json = begin(id).append(",\"file\":");
+            JsonStrings.append(json, literal.getFile().toString());
+            json.append(",\"line\":").append(literal.getLine());
+            json.append(",\"offset\":").append(literal.getOffset());
+            json.append(",\"value\":");
+            JsonStrings.append(json, literal.getRawValue());
+            json.append(",\"name\":");
+            JsonStrings.append(json, literal.getProposedName());
+            respond(json.append('}'));
+            count++;
+        }
+        mLiteralsScanned.addAndGet(count);
+        respond(begin(id).append(",\"done\":true,\"count\":").append(count).append(",\"millis\":").append(millis(start)).append('}'));
+    }
+
+    /** extract the strings of the files or the directory of the request */
+    private void extract(Object id, Map<String, Object> request, long start) throws IOException {
+        File xmlFile = new File(getString(request, "xml")).getAbsoluteFile();
+        List<File> files = new ArrayList<File>();
+        boolean partial = request.get("files") instanceof List;
+        if(partial) {
+            for(Object file : (List<?>) request.get("files")) {
+                files.add(new File(String.valueOf(file)));
+            }
+        } else {
+            files.addAll(new SourceWalker(new File(getString(request, "path"))).walk());
+            files.remove(xmlFile);
+        }
+        Object manifest = request.get("manifest");
+        Object lock = mXmlLocks.putIfAbsent(xmlFile, new Object());
+        if(lock == null) {
+            lock = mXmlLocks.get(xmlFile);
+        }
+        int count;
+        synchronized(lock) {
+            if(manifest == null) {
+                count = mEngine.extract(files, xmlFile);
+            } else if(partial) {
+                /** only the given files, the strings of the other files in the manifest are kept */
+                count = mEngine.extractChanged(files, xmlFile, getCache(new File(manifest.toString())));
+            } else {
+                count = mEngine.extract(files, xmlFile, getCache(new File(manifest.toString())));
+            }
+        }
+        mStringsExtracted.addAndGet(count);
+        respond(begin(id).append(",\"done\":true,\"count\":").append(count).append(",\"files\":").append(files.size())
+            .append(",\"millis\":").append(millis(start)).append('}'));
+    }
+
+    /** write the counters of the server */
+    private void report(Object id) {
+        StringBuilder json = begin(id).append(",\"done\":true");
+        json.append(",\"uptimeMillis\":").append(System.currentTimeMillis() - mStartTime);
+        json.append(",\"requests\":").append(mRequests.get());
+        json.append(",\"errors\":").append(mErrors.get());
+        json.append(",\"literalsScanned\":").append(mLiteralsScanned.get());
+        json.append(",\"stringsExtracted\":").append(mStringsExtracted.get());
+        json.append(",\"busyMillis\":").append(mBusyNanos.get() / 1000000);
+        json.append(",\"threads\":").append(mThreads);
+        respond(json.append('}'));
+    }
+
+    /** @return the cache of the given manifest, loaded once */
+    private ExtractionCache getCache(File manifest) throws IOException {
+        File key = manifest.getAbsoluteFile();
+        ExtractionCache cache = mCaches.get(key);
+        if(cache == null) {
+            ExtractionCache loaded = new ExtractionCache(key);
+            cache = mCaches.putIfAbsent(key, loaded);
+            if(cache == null) {
+                cache = loaded;
+            }
+        }
+        return cache;
+    }
+
+    /** start the json response of the given request */
+    private static StringBuilder begin(Object id) {
+        StringBuilder json = new StringBuilder(128).append("{\"id\":");
+        if(id instanceof String) {
+            JsonStrings.append(json, (String) id);
+        } else {
+            json.append(id instanceof Number ? id : null);
+        }
+        return json;
+    }
+
+    /** write the response line, the lines of concurrent requests are never mixed */
+    private void respond(CharSequence json) {
+        synchronized(this) {
+            try {
+                mOut.append(json).append('\n');
+                mOut.flush();
+            } catch(IOException e) {
+                /** the client is gone, the input ends soon */
+                System.err.println(e);
+            }
+        }
+    }
+
+    private static String getString(Map<String, Object> request, String name) {
+        Object value = request.get(name);
+        if(!(value instanceof String)) {
+            throw new IllegalArgumentException("missing \"" + name + "\"");
+        }
+        return (String) value;
+    }
+
+    private static long millis(long start) {
+        return (System.nanoTime() - start) / 1000000;
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright 2025 Suleman 'sdtech' Hamisu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.sdtech.stringextractor.terminal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal json reader for the single line requests of {@link ExtractionServer}, the strings of
+ * the responses are written with {@link com.sdtech.stringextractor.core.JsonStrings}.
+ *
+ * <p>
+ * An object is read to a {@link Map}, an array to a {@link List}, a number to a {@link Long} or
+ * {@link Double} and the literals to {@link Boolean} or null. The objects and arrays are nested
+ * {@link #MAX_DEPTH} levels at most, so a deep request cannot overflow the stack of the reader.
+ */
+final class JsonLine {
+
+    /** the maximum nesting of the objects and arrays */
+    static final int MAX_DEPTH = 64;
+
+    private final String mText;
+    private int mPos;
+
+    /** the number of objects and arrays being read */
+    private int mDepth;
+
+    private JsonLine(String text) {
+        mText = text;
+    }
+
+    /**
+     * parse the given json object.
+     *
+     * @throws IllegalArgumentException if the text is not a valid json object.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parseObject(String text) {
+        JsonLine reader = new JsonLine(text);
+        Object value = reader.readValue();
+        reader.skipWhitespace();
+        if(!(value instanceof Map) || reader.mPos != text.length()) {
+            throw new IllegalArgumentException("expected a single json object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if(mPos >= mText.length()) {
+            throw error("unexpected end");
+        }
+        char c = mText.charAt(mPos);
+        switch(c) {
+            case '{':
+            case '[':
+                if(mDepth >= MAX_DEPTH) {
+                    throw error("nested too deep");
+                }
+                mDepth++;
+                Object value = c == '{' ? readObject() : readArray();
+                mDepth--;
+                return value;
+            case '"':
+                return readString();
+            case 't':
+                return readLiteral("true", Boolean.TRUE);
+            case 'f':
+                return readLiteral("false", Boolean.FALSE);
+            case 'n':
+                return readLiteral("null", null);
+            default:
+                return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> object = new LinkedHashMap<String, Object>();
+        mPos++;
+        skipWhitespace();
+        if(peek() == '}') {
+            mPos++;
+            return object;
+        }
+        while(true) {
+            skipWhitespace();
+            if(peek() != '"') {
+                throw error("expected a name");
+            }
+            String name = readString();
+            skipWhitespace();
+            expect(':');
+            object.put(name, readValue());
+            skipWhitespace();
+            if(peek() == ',') {
+                mPos++;
+                continue;
+            }
+            expect('}');
+            return object;
+        }
+    }
+
+    private List<Object> readArray() {
+        List<Object> array = new ArrayList<Object>();
+        mPos++;
+        skipWhitespace();
+        if(peek() == ']') {
+            mPos++;
+            return array;
+        }
+        while(true) {
+            array.add(readValue());
+            skipWhitespace();
+            if(peek() == ',') {
+                mPos++;
+                continue;
+            }
+            expect(']');
+            return array;
+        }
+    }
+
+    private String readString() {
+        StringBuilder sb = new StringBuilder();
+        mPos++;
+        while(mPos < mText.length()) {
+            char c = mText.charAt(mPos++);
+            if(c == '"') {
+                return sb.toString();
+            }
+            if(c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if(mPos >= mText.length()) {
+                break;
+            }
+            char e = mText.charAt(mPos++);
+            switch(e) {
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if(mPos + 4 > mText.length()) {
+                        throw error("bad unicode escape");
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(mText.substring(mPos, mPos + 4), 16));
+                    } catch(NumberFormatException ex) {
+                        throw error("bad unicode escape");
+                    }
+                    mPos += 4;
+                    break;
+                default: sb.append(e);
+            }
+        }
+        throw error("string not closed");
+    }
+
+    private Object readLiteral(String literal, Object value) {
+        if(!mText.startsWith(literal, mPos)) {
+            throw error("unexpected token");
+        }
+        mPos += literal.length();
+        return value;
+    }
+
+    private Object readNumber() {
+        int start = mPos;
+        boolean decimal = false;
+        while(mPos < mText.length()) {
+            char c = mText.charAt(mPos);
+            if(c == '.' || c == 'e' || c == 'E') {
+                decimal = true;
+            } else if(!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            mPos++;
+        }
+        String number = mText.substring(start, mPos);
+        try {
+            return decimal ? (Object) Double.valueOf(number) : (Object) Long.valueOf(number);
+        } catch(NumberFormatException e) {
+            throw error("unexpected token");
+        }
+    }
+
+    private char peek() {
+        return mPos < mText.length() ? mText.charAt(mPos) : 0;
+    }
+
+    private void expect(char c) {
+        if(peek() != c) {
+            throw error("expected '" + c + "'");
+        }
+        mPos++;
+    }
+
+    private void skipWhitespace() {
+        while(mPos < mText.length() && Character.isWhitespace(mText.charAt(mPos))) {
+            mPos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at " + mPos);
+    }
+}
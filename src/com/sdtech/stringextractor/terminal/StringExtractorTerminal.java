@@ -16,22 +16,26 @@
 
 package com.sdtech.stringextractor.terminal;
 
+import com.sdtech.stringextractor.ExtractionConfig;
+import com.sdtech.stringextractor.ExtractionStats;
 import com.sdtech.stringextractor.StringExtractor;
+import com.sdtech.stringextractor.core.MainExtractor;
+import com.sdtech.stringextractor.core.SourceWalker;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.InputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
 
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class StringExtractorTerminal {
     
@@ -51,6 +55,10 @@ public class StringExtractorTerminal {
      */
     private static int extractCount = 0;
 
+    /** the names of the options which require an argument, without the dashes */
+    private static final List<String> ARGUMENT_OPTIONS = Arrays.asList(
+        "r", "b", "c", "i", "d", "x", "p", "s", "a", "j", "e", "m", "w", "stats", "include", "exclude");
+
     /** 
      * The main method to pass all the options and arguments.<p>
      *
@@ -63,12 +71,13 @@ public class StringExtractorTerminal {
         if(args.length <= 0) {
             showUsage("");
             return;
-        } else if(args.length < 2) {
-            if(args[0].matches("[-]{1,2}(h|help|\\?)")) {
+        } else if(args.length < 2 && !args[0].equalsIgnoreCase("--server")) {
+            String name = stripDashes(args[0]);
+            if(name != null && (name.equals("h") || name.equals("help") || name.equals("?"))) {
                 showUsage("");
                 return;
             }
-            if(args[0].matches("[-]{1,2}((r|b|c|i|d|x|p|s)|([rbc]{3}))")) {
+            if(name != null && (ARGUMENT_OPTIONS.contains(name) || (name.length() == 3 && containsOnly(name, "rbc")))) {
                 showUsage("", "option '" + args[0] + "' require one argument.");
                 return;
             }
@@ -80,83 +89,157 @@ public class StringExtractorTerminal {
             File pathToScan = null;
             String prefixText=null;
             String suffixText = null;
+            String[] attributes = null;
+            int threads = 0;
+            Charset charset = null;
+            File manifestFile = null;
+            File statsFile = null;
             boolean useExtractedString=false;
             boolean backupFile = false;
             boolean recursive = false;
+            boolean watch = false;
+            boolean noIgnore = false;
+            boolean cachedStrings = false;
+            boolean server = false;
+            String[] includes = null;
+            String[] excludes = null;
             final ArrayList<File> inputFiles = new ArrayList<File>();
 
+            /** the options are compared as strings, so no regex is compiled at startup */
+            parse:
             for(int i = 0; i < args.length; i++) {
 
                 String option=args[i].toLowerCase();
+                /** the argument of the option, null if it is the last */
+                String value = i < args.length - 1 ? args[i + 1] : null;
 
-                if(option.matches("[-]{1,2}[rbc]{3}")) {
-                    backupFile = true;
-                    recursive = true;
-                    useExtractedString = true;
-                } else if(option.matches("[-]{1,2}[br]{2}")) {
-                    backupFile = true;
-                    recursive = true;
-                } else if(option.matches("[-]{1,2}[rc]{2}")) {
-                    recursive = true;
-                    useExtractedString = true;
-                } else if(option.matches("[-]{1,2}[cb]{2}")) {
-                    backupFile = true;
-                    useExtractedString = true;
-                } else if(option.matches("-b")) {
-                    backupFile = true;
-                } else if(option.matches("-r")) {
-                    recursive = true;
-                } else if(option.matches("-c")) {
-                    useExtractedString = true;
-                }
-
-                if(option.matches("-d")) {
-                    if(i < args.length - 1) {
-                        pathToScan = new File(args[i + 1]);
-                    } else {
-                        showUsage("", "option -d require one argument.");
+                switch(option) {
+                    case "-b":
+                        backupFile = true;
                         break;
-                    }
-                } else if(option.matches("-x")) {
-                    if(i < args.length - 1) {
-                        xmlFile = new File(args[i + 1]);
-                    } else {
-                        showUsage("", "option -x require one argument.");
+                    case "-r":
+                        recursive = true;
                         break;
-                    }
-                } else if(option.matches("-i")) {
-                    if(i < args.length - 1) {
-                        inputFile = new File(args[i + 1]);
-                    } else {
-                        showUsage("", "option -i require one argument.");
+                    case "-c":
+                        useExtractedString = true;
                         break;
-                    }
-                } else if(option.matches("-s")) {
-                    if(i < args.length - 1) {
-                        suffixText = args[i + 1];
-                    } else {
-                        showUsage("", "option -s require one argument.");
+                    case "-w":
+                    case "--watch":
+                        watch = true;
                         break;
-                    }
-                } else if(option.matches("-p")) {
-                    if(i < args.length - 1) {
-                        prefixText = args[i + 1];
-                    } else {
-                        showUsage("", "option -p require one argument.");
+                    case "--no-ignore":
+                        noIgnore = true;
                         break;
-                    }
+                    case "--cached-strings":
+                        cachedStrings = true;
+                        break;
+                    case "--server":
+                        server = true;
+                        break;
+                    case "-d":
+                        if(value == null) {
+                            showUsage("", "option -d require one argument.");
+                            break parse;
+                        }
+                        pathToScan = new File(value);
+                        break;
+                    case "-x":
+                        if(value == null) {
+                            showUsage("", "option -x require one argument.");
+                            break parse;
+                        }
+                        xmlFile = new File(value);
+                        break;
+                    case "-i":
+                        if(value == null) {
+                            showUsage("", "option -i require one argument.");
+                            break parse;
+                        }
+                        inputFile = new File(value);
+                        break;
+                    case "-s":
+                        if(value == null) {
+                            showUsage("", "option -s require one argument.");
+                            break parse;
+                        }
+                        suffixText = value;
+                        break;
+                    case "-p":
+                        if(value == null) {
+                            showUsage("", "option -p require one argument.");
+                            break parse;
+                        }
+                        prefixText = value;
+                        break;
+                    case "-j":
+                        if(!isNumber(value)) {
+                            showUsage("", "option -j require a number as argument.");
+                            break parse;
+                        }
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "-e":
+                        if(value == null || !Charset.isSupported(value)) {
+                            showUsage("", "option -e require a supported charset as argument.");
+                            break parse;
+                        }
+                        charset = Charset.forName(value);
+                        break;
+                    case "-m":
+                        if(value == null) {
+                            showUsage("", "option -m require one argument.");
+                            break parse;
+                        }
+                        manifestFile = new File(value);
+                        break;
+                    case "--stats":
+                        if(value == null) {
+                            showUsage("", "option --stats require one argument.");
+                            break parse;
+                        }
+                        statsFile = new File(value);
+                        break;
+                    case "--include":
+                        if(value == null) {
+                            showUsage("", "option --include require one argument.");
+                            break parse;
+                        }
+                        includes = value.split(",");
+                        break;
+                    case "--exclude":
+                        if(value == null) {
+                            showUsage("", "option --exclude require one argument.");
+                            break parse;
+                        }
+                        excludes = value.split(",");
+                        break;
+                    case "-a":
+                        if(value == null) {
+                            showUsage("", "option -a require one argument.");
+                            break parse;
+                        }
+                        attributes = value.split(",");
+                        break;
+                    default:
+                        /** combined flags, e.g -rbc or -rc */
+                        String flags = stripDashes(option);
+                        if(flags != null && flags.length() >= 2 && flags.length() <= 3 && containsOnly(flags, "rbc")) {
+                            backupFile |= flags.indexOf('b') >= 0;
+                            recursive |= flags.indexOf('r') >= 0;
+                            useExtractedString |= flags.indexOf('c') >= 0;
+                        }
                 }
             }
 
-            if(inputFile != null && pathToScan != null) {
+            if(!server && inputFile != null && pathToScan != null) {
                 System.out.println("You provide two options [-d,-i] but only one require.");
                 System.out.print("which do you want use [d/i] ? : ");
-                recursive = new BufferedReader(new InputStreamReader(System.in)).readLine().toLowerCase().matches("d");
+                recursive = new BufferedReader(new InputStreamReader(System.in)).readLine().trim().equalsIgnoreCase("d");
             }
-            if(!recursive && inputFile == null && pathToScan != null) {
+            if(!server && !recursive && inputFile == null && pathToScan != null) {
                 System.out.println("You provide option -d which require -r.");
                 System.out.print("do you want use -r option [Y/n] ? : ");
-                recursive = new BufferedReader(new InputStreamReader(System.in)).readLine().toLowerCase().matches("y");
+                recursive = new BufferedReader(new InputStreamReader(System.in)).readLine().trim().equalsIgnoreCase("y");
             }
             if(pathToScan == null) {
                 recursive = false;
@@ -168,8 +251,37 @@ public class StringExtractorTerminal {
             final boolean esc   = useExtractedString;
             final File    xml   = xmlFile;
             final File    input = inputFile;
+            final String[] attrs = attributes;
+            final int     jobs  = threads;
+            final Charset cs    = charset;
+            final File    mfst  = manifestFile;
+            final ExtractionStats stats = statsFile != null ? new ExtractionStats() : null;
+            final String[] incl = includes;
+            final String[] excl = excludes;
+            final boolean ignore = !noIgnore;
+            final boolean cached = cachedStrings;
+            /** the options of the recursive extraction */
+            final ExtractionConfig config = new ExtractionConfig.Builder()
+                .setExtractedString(esc)
+                .setCachedExtractedString(cached)
+                .setPrefix(prx)
+                .setSuffix(sfx)
+                .setBackupFile(bkp)
+                .setXmlAttributes(attrs)
+                .setCharset(cs)
+                .setStats(stats)
+                .build();
 
-            if(recursive) {
+            if(server) {
+                /** blocks until the input ends */
+                new ExtractionServer(config, jobs).serve(System.in, System.out);
+            } else if(recursive && watch) {
+                modeRecursive = true;
+                File finalXml = xml != null ? xml : new File(pathToScan, "extracted_strings.xml");
+                System.out.print("Extracting strings of: " + pathToScan.getAbsolutePath());
+                /** blocks until the terminal is stopped */
+                StringExtractor.watchStrings(newWalker(pathToScan, incl, excl, ignore), finalXml, config, jobs, mfst);
+            } else if(recursive) {
                 modeRecursive = true;
                 extractCount = 0;
                 final File path = pathToScan;
@@ -180,112 +292,45 @@ public class StringExtractorTerminal {
 
                     @Override
                     public void run() {
-                        System.out.printf("Finding files on path: %s", path.getAbsolutePath());
-                        findFiles(path, inputFiles);
+                        System.out.print("Finding files on path: " + path.getAbsolutePath());
+                        findFiles(path, inputFiles, incl, excl, ignore);
                     }
                 }, true);
                 if(result.get() && inputFiles.size() > 0) {
-                    final ArrayList<File> tempXmlFiles = new ArrayList<File>();
                     Future<Boolean> result2 = executor.submit(new Runnable(){
 
                         @Override
                         public void run() {
-                            if(inputFiles.size() < 2) {
+                            if(inputFiles.size() < 2 && mfst == null) {
                                 try {
-                                    System.out.printf("\r\nSearching strings on: %s", inputFiles.get(0).getAbsolutePath());
-                                    extractString(inputFiles.get(0), xml, esc, prx, sfx, bkp, true, extractCount);
-                                    System.out.printf("\r\nextracted strings from %s was saved to %s in %s ms.", inputFiles.get(0).getAbsolutePath(), xml != null ? xml.getAbsolutePath() : inputFiles.get(0).getAbsolutePath() + ".extracted_strings.xml", System.currentTimeMillis() - startTime);
+                                    System.out.print("\r\nSearching strings on: " + inputFiles.get(0).getAbsolutePath());
+                                    extractString(inputFiles.get(0), xml, esc, cached, prx, sfx, bkp, true, extractCount, attrs, cs, stats);
+                                    System.out.print("\r\nextracted strings from " + inputFiles.get(0).getAbsolutePath() + " was saved to " + (xml != null ? xml.getAbsolutePath() : inputFiles.get(0).getAbsolutePath() + ".extracted_strings.xml") + " in " + (System.currentTimeMillis() - startTime) + " ms.");
                                 } catch(Exception e) {
                                     e.printStackTrace(System.out);
                                 }
                                 return;
                             }
-                            for(int i =0; i < inputFiles.size(); i++) {
-                                try {
-                                    File input =  inputFiles.get(i);
-                                    //create a temporary xml file
-                                    File tempXmlFile = new File(xml != null ? xml.getParent() : input.getParent(), String.format("tmp_ext_str_%s", i + 1));
-                                    tempXmlFiles.add(tempXmlFile);
-                                    System.out.printf("\r\nSearching strings on: %s", input.getAbsolutePath());
-                                    extractString(input, tempXmlFile, esc, prx, sfx, bkp, false, 0);
-                                } catch(Exception e) {
-                                    e.printStackTrace(System.out);
-                                }
+                            File finalXml = xml;
+                            if(xml == null) {
+                                finalXml = new File(inputFiles.get(0).getParent(), "extracted_strings.xml");
                             }
-                        }
-                    }, true);
-                    if(result2.get()) {
-                        executor.shutdown();
-                        //merge our xml files
-                        if(extractCount <= 0) {
-                            System.out.printf("\r\n%s files was scanned and no strings found.", inputFiles.size());
-                            return;
-                        }
-                        File finalXml = xml;
-                        if(xml == null) {
-                            finalXml = new File(inputFiles.get(0).getParent(), "extracted_strings.xml");
-                        }
-                        StringBuilder strb = new StringBuilder();
-                        // read the strings from our temporary files.
-                        for(File file : tempXmlFiles) {
-                            boolean read = false;
+                            System.out.print("\r\nSearching strings on " + inputFiles.size() + " files");
                             try {
-                                strb.append(readFile(file));
-                                strb.append("\r\n");
-                                read = true;
+                                extractCount = StringExtractor.extractStrings(inputFiles, finalXml, config, jobs, mfst);
                             } catch(Exception e) {
-                                read = false;
-                            } finally {
-                                //delete the file if exists and read success.
-                                if(read && file.delete()) {} else {
-                                    if(file.exists()) {
-                                        System.out.printf("\r\nunable to %s the temp file: %s", read ? "delete" : "read", file.getAbsoluteFile());
-                                    }
-                                }
+                                e.printStackTrace(System.out);
+                                return;
                             }
-                        }
-                        String xmlStart = "<?xml version=\"1.0\" encoding=\"utf-8\"?>\r\n<resources>";
-                        String xmlEnd = "\r\n</resources>";
-                        StringBuilder sb = new StringBuilder();
-                        sb.append(xmlStart);
-                        String[] lines = strb.toString().split("\r\n");
-                        for(String line : lines) {
-                            if(line.matches("[\\s]{0,}\\<string.*?")) {
-                                sb.append("\r\n" + line);
+                            if(extractCount <= 0) {
+                                System.out.print("\r\n" + inputFiles.size() + (mfst != null ? " files was checked and no new strings found." : " files was scanned and no strings found."));
+                                return;
                             }
+                            System.out.print("\r\n" + extractCount + " strings was extracted from " + inputFiles.size() + " files and saved to " + finalXml.getAbsolutePath() + " in " + (System.currentTimeMillis() - startTime) + " ms.");
                         }
-                        sb.append(xmlEnd);
-                        //check for duplicate name of strings by
-                        //generating new name from prefix and suffix
-                        String prefix = prefixText;
-                        String suffix = suffixText;
-                        if(prefix == null) {
-                            prefix = "extracted_string%s";
-                        } else if(!prefix.endsWith("%s")) {
-                            prefix += "%s";
-                        }
-                        if(suffix == null) {
-                            suffix = "%s";
-                        } else if(!suffix.endsWith("%s")) {
-                            suffix += "%s";
-                        }
-                        String name = String.format("name=\"" + prefix + "\">", suffix);
-
-                        String xmlCode = sb.toString();
-                        Matcher nameMatcher = Pattern.compile("name=\".*?\">", Pattern.CASE_INSENSITIVE).matcher(xmlCode);
-                        StringBuffer strbuffer = new StringBuffer();
-
-                        int count = 0;
-                        while(nameMatcher.find()) {
-                            // replace any string name with our new one
-                            nameMatcher.appendReplacement(strbuffer, String.format(name, ++count));
-                        }
-                        //append the rest of text
-                        nameMatcher.appendTail(strbuffer);
-                        xmlCode = strbuffer.toString();
-                        //write and save our xml code
-                        writeFile(finalXml, xmlCode);
-                        System.out.printf("\r\n%s strings was extracted from %s files and saved to %s in %s ms.", extractCount , tempXmlFiles.size(), finalXml.getAbsolutePath(), System.currentTimeMillis() - startTime);
+                    }, true);
+                    if(result2.get()) {
+                        executor.shutdown();
                     }
                 } else if(result.get() && pathToScan.exists() && pathToScan.isDirectory()) {
                     System.out.println("\r\nNo java or xml file found on path: " + pathToScan.getAbsolutePath());
@@ -294,8 +339,7 @@ public class StringExtractorTerminal {
                 modeRecursive = false;
                 extractCount = 0;
                 final long startTime = System.currentTimeMillis();
-                ExecutorService executor = Executors.newSingleThreadExecutor();
-                Future<Boolean> result = executor.submit(new Runnable(){
+                Runnable task = new Runnable(){
 
                     @Override
                     public void run() {
@@ -312,46 +356,95 @@ public class StringExtractorTerminal {
                             System.out.println("input file is a directory.");
                             return;
                         }
-                        System.out.printf("Extracting strings of: %s", input.getAbsolutePath());
+                        System.out.print("Extracting strings of: " + input.getAbsolutePath());
                         try {
-                            extractString(input, xml, esc, prx, sfx, bkp, false, 0);
+                            extractString(input, xml, esc, cached, prx, sfx, bkp, false, 0, attrs, cs, stats);
                         } catch(Exception e) {
                             e.printStackTrace(System.out);
                         }
                     }
-                }, true);
-                if(result.get()) {
-                    if(allDone) {
-                        System.out.printf("\r\nextracted strings from %s was saved to %s in %s ms.", input.getAbsolutePath(), xml != null ? xml.getAbsolutePath() : input.getAbsolutePath() + ".extracted_strings.xml", System.currentTimeMillis() - startTime);
-                    }
-                    executor.shutdown();
+                };
+                /** a single file is extracted on the main thread, no executor is started */
+                task.run();
+                if(allDone) {
+                    System.out.print("\r\nextracted strings from " + input.getAbsolutePath() + " was saved to " + (xml != null ? xml.getAbsolutePath() : input.getAbsolutePath() + ".extracted_strings.xml") + " in " + (System.currentTimeMillis() - startTime) + " ms.");
                 }
             }
+            if(stats != null) {
+                writeStats(statsFile, stats);
+            }
         }   
     }
-    /** find the files in folder dir and add to ArrayList found */
-    private static void findFiles(File dir, ArrayList<File> found) {
+    /** find the files in folder dir which match the globs and are not ignored, and add to ArrayList found */
+    private static void findFiles(File dir, ArrayList<File> found, String[] includes, String[] excludes, boolean ignore) {
         if(dir.isFile()) {
-            System.out.printf("\r\nFile: %s is not a directory", dir.getAbsolutePath());
+            System.out.print("\r\nFile: " + dir.getAbsolutePath() + " is not a directory");
             return;
-        } else if(!dir.exists() || dir.listFiles() == null) {
-            System.out.printf("\r\nFile: %s is %s", dir.getAbsolutePath(), dir.exists() ? "not contains any files" : "not exists.");
+        } else if(!dir.isDirectory()) {
+            System.out.print("\r\nFile: " + dir.getAbsolutePath() + " is not exists.");
             return;
         }
-        for(File child : dir.listFiles()) {
-            if(child.isDirectory()) {
-                findFiles(child, found);
-            } else if(child.getName().matches(".*?\\.(java|xml)")) {
-                found.add(child);
+        found.addAll(newWalker(dir, includes, excludes, ignore).walk());
+    }
+    /** create the walker of the folder dir with the globs, which applies the .gitignore files and the default excludes if ignore is true */
+    private static SourceWalker newWalker(File dir, String[] includes, String[] excludes, boolean ignore) {
+        SourceWalker walker = new SourceWalker(dir);
+        if(includes != null) {
+            for(String glob : includes) {
+                walker.addInclude(glob);
+            }
+        }
+        if(excludes != null) {
+            for(String glob : excludes) {
+                walker.addExclude(glob);
             }
         }
+        walker.setGitIgnore(ignore);
+        walker.setDefaultExcludes(ignore);
+        return walker;
     }
+    /** write the json report of the stats to file */
+    private static void writeStats(File statsFile, ExtractionStats stats) throws IOException {
+        Files.write(statsFile.toPath(), stats.toJson().getBytes("UTF-8"));
+        System.out.print("\r\nstats was saved to " + statsFile.getAbsolutePath());
+    }
+    /** @return the option without its one or two leading dashes, or null if it does not start with a dash */
+    private static String stripDashes(String option) {
+        if(option.startsWith("--")) {
+            return option.substring(2);
+        }
+        return option.startsWith("-") ? option.substring(1) : null;
+    }
+
+    /** @return true if every char of the text is one of the given chars */
+    private static boolean containsOnly(String text, String chars) {
+        for(int i = 0; i < text.length(); i++) {
+            if(chars.indexOf(text.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return true if the text is a number of 1 to 9 digits */
+    private static boolean isNumber(String text) {
+        if(text == null || text.isEmpty() || text.length() > 9) {
+            return false;
+        }
+        for(int i = 0; i < text.length(); i++) {
+            if(text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /** print the usage of this class in terminal */
     private static void showUsage(String option, String... message) {
         String help = "";
         help += option != "" ? " StringExtractor : unknown option '" + option + "'" : "";
         help += message.length >= 1 ? "\r\n" + message[0] : "";
-        help += "\r\n  usage: StringExtractor -[r|b|c] -i FILE -d PATH -p TEXT -s TEXT -x FILE";
+        help += "\r\n  usage: StringExtractor -[r|b|c] -i FILE -d PATH -p TEXT -s TEXT -x FILE -a NAMES -e CHARSET -j N -m FILE -w --stats FILE --include GLOBS --exclude GLOBS --no-ignore --cached-strings --server";
         help += "\r\n\r\n    Extract raw Strings from xml and java files of android app project to optional xml file and link them.\r\n     for example android:label=\"some text\" will become android:label=\"@string/extracted1\" and ";
         help += " the file extracted.xml will be created with code <string name=\"extracted1\">some text</string>. after extraction of xml file.";
         help += "\r\n  Options are:";
@@ -360,52 +453,39 @@ public class StringExtractorTerminal {
         help += "\r\n    -p TEXT        the prefix text to use when genarating xml string name";
         help += "\r\n    -s TEXT        the suffix text to use when genarating xml string name";
         help += "\r\n    -x FILE        the file to write the genarated xml";
+        help += "\r\n    -a NAMES       comma separated xml attributes to extract the strings from. default is android:text,android:title,android:hint,android:summary,android:description,android:label";
+        help += "\r\n    -e CHARSET     the charset of the files to read and write. default is UTF-8, files with byte order mark always use its charset.";
+        help += "\r\n    -j N           the number of files to extract in parallel when -r is used. default is the number of processors.";
+        help += "\r\n    -m FILE        incremental mode when -r is used: keep the state of the scanned files in FILE and skip the files which was not changed since last run.";
         help += "\r\n    -r             search for files recursively and extract their strings. this option require -d to be specified.";
+        help += "\r\n    --stats FILE   write the counters and the time of every phase of the extraction to FILE as json.";
+        help += "\r\n    --include GLOBS comma separated globs of the names or the relative paths of the files to find when -r is used, for example *.java,app/src/main/**";
+        help += "\r\n    --exclude GLOBS comma separated globs of the names or the relative paths of the files and directories to skip when -r is used.";
+        help += "\r\n    --no-ignore    do not apply the .gitignore files and walk the build, .git, .gradle and generated directories when -r is used.";
+        help += "\r\n    -w, --watch    keep watching the directory when -r is used and extract the strings of the files when they change.";
         help += "\r\n    -b             backup the original file to filename.backup";
         help += "\r\n    -c             use class ExtractedString for java files. this will generate java file 'ExtractedString.java' in the same directory of input file to access strings from classes that do not have a Context. and you must call ExtractedString.setContext(context) from your application or activity onCreate. ";
+        help += "\r\n    --cached-strings generate the ExtractedString class of option -c with a cache of the strings, cleared when the context is set again or the locale changes.";
+        help += "\r\n    --server       keep running and answer json requests, one per line, from stdin to stdout: {\"id\":1,\"op\":\"scan\",\"path\":FILE}, {\"id\":2,\"op\":\"extract\",\"files\":[FILES],\"xml\":FILE} or {\"id\":3,\"op\":\"report\"}.";
         help += "\r\n    -h             show this usage message.";
         System.out.println(help);
     }
 
     /** do the extraction */
-    private static void extractString(File input, File xmlFile, boolean esc, String prx, String sfx, boolean bkp, boolean recsv, int count) throws Exception {
-        StringExtractor.extractString(
-        /*fileToRead=*/input,
-        /*xmlFile=*/xmlFile,
-        /*extractedString=*/esc,
-        /*prefix=*/prx,
-        /*suffix=*/sfx,
-        /*backupFile=*/bkp,
-        /*modeRecursive=*/recsv,
-        /*extractCount=*/count);
-    }
-
-    /**
-     * return the string read from the given file.
-     */
-    private static String readFile(File f) throws Exception {
-        String str = "";
-        InputStream in = new FileInputStream(f);
-        byte[] data = new byte[4096];
-
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        int read;
-        while((read=in.read(data)) != -1){
-            out.write(data,0,read);
-        }
-        str = out.toString();
-        in.close();
-        out.close();
-        
-        return str;
-    }
-    /**
-     * saves the given string into a given file
-     */
-    private static void writeFile(File f, String text) throws Exception {
-        FileOutputStream fout = new FileOutputStream(f);
-        fout.write(text.getBytes());
-        fout.flush();
-        fout.close();
+    private static void extractString(File input, File xmlFile, boolean esc, boolean cached, String prx, String sfx, boolean bkp, boolean recsv, int count, String[] attrs, Charset cs, ExtractionStats stats) throws Exception {
+        StringExtractor extractor = MainExtractor.getExtractor();
+        extractor.setFileToRead(input);
+        extractor.setXmlFile(xmlFile);
+        extractor.setExtractedString(esc);
+        extractor.setCachedExtractedString(cached);
+        extractor.setPrefix(prx);
+        extractor.setSuffix(sfx);
+        extractor.setBackupFile(bkp);
+        extractor.setModeRecursive(recsv);
+        extractor.setExtractCount(count);
+        extractor.setXmlAttributes(attrs);
+        extractor.setCharset(cs);
+        extractor.setStats(stats);
+        extractor.startExtraction();
     }
 }